@@ -0,0 +1,69 @@
+package com.aim.project.ssp;
+
+import com.aim.project.ssp.instance.MappedDistanceMatrix;
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
+
+/**
+ * Objective function for instances whose costs come from an explicit, possibly asymmetric,
+ * distance matrix (for example road network distances) instead of Euclidean geometry.
+ */
+public class MatrixObjectiveFunction implements ObjectiveFunctionInterface {
+
+	private final SSPInstanceInterface oInstance;
+
+	private final MappedDistanceMatrix oMatrix;
+
+	private final int iAirportIndex;
+
+	public MatrixObjectiveFunction(SSPInstanceInterface oInstance, MappedDistanceMatrix oMatrix) {
+
+		this.oInstance = oInstance;
+		this.oMatrix = oMatrix;
+		this.iAirportIndex = oInstance.getNumberOfLocations() + 1;
+	}
+
+	@Override
+	public int getObjectiveFunctionValue(SolutionRepresentationInterface oSolution) {
+
+		int[] aiRepresentation = oSolution.getSolutionRepresentation();
+
+		// Hotel to the first location, consecutive locations, then the last location to the airport
+		int totalCost = getCostBetweenHotelAnd(aiRepresentation[0]);
+		for(int i = 0; i < aiRepresentation.length - 1; i++) {
+			totalCost += getCost(aiRepresentation[i], aiRepresentation[i + 1]);
+		}
+		totalCost += getCostBetweenAirportAnd(aiRepresentation[aiRepresentation.length - 1]);
+
+		return totalCost;
+	}
+
+	@Override
+	public int getCost(int iLocationA, int iLocationB) {
+
+		return oMatrix.get(iLocationA + 1, iLocationB + 1);
+	}
+
+	@Override
+	public int getCostBetweenHotelAnd(int iLocation) {
+
+		return oMatrix.get(0, iLocation + 1);
+	}
+
+	@Override
+	public int getCostBetweenAirportAnd(int iLocation) {
+
+		return oMatrix.get(iLocation + 1, iAirportIndex);
+	}
+
+	@Override
+	public boolean isSymmetric() {
+		return oMatrix.isSymmetric();
+	}
+
+	@Override
+	public SSPInstanceInterface getInstance() {
+		return oInstance;
+	}
+}
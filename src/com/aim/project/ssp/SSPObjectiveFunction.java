@@ -1,20 +1,24 @@
 package com.aim.project.ssp;
 
+import com.aim.project.ssp.instance.DistanceTables;
 import com.aim.project.ssp.instance.Location;
 import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
 import com.aim.project.ssp.interfaces.SSPInstanceInterface;
 import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
-import com.aim.project.ssp.solution.SSPSolution;
-
-import java.util.ArrayList;
 
 /**
  * @author Warren G Jackson
  * @since 17/03/2025
+ *
+ * Costs are computed directly from the coordinates until {@link #precomputeDistanceTables()} publishes
+ * the precomputed tables, which may happen on a background thread while the search is already running.
  */
 public class SSPObjectiveFunction implements ObjectiveFunctionInterface {
 	
 	private final SSPInstanceInterface oInstance;
+
+	// published once by the precomputation thread; null until then
+	private volatile DistanceTables oTables;
 	
 	public SSPObjectiveFunction(SSPInstanceInterface oInstance) {
 		
@@ -24,24 +28,20 @@ public class SSPObjectiveFunction implements ObjectiveFunctionInterface {
 	@Override
 	public int getObjectiveFunctionValue(SolutionRepresentationInterface oSolution) {
 
-		ArrayList<Location> locations = oInstance.getSolutionAsListOfLocations(
-				new SSPSolution(oSolution, 0)); // Temp solution with 0 cost
+		int[] aiRepresentation = oSolution.getSolutionRepresentation();
 
 		int totalCost = 0;
 
 		// Add cost from hotel to first location
-		totalCost += getCostBetweenHotelAnd(oSolution.getSolutionRepresentation()[0]);
+		totalCost += getCostBetweenHotelAnd(aiRepresentation[0]);
 
 		// Add costs between consecutive locations
-		for(int i = 0; i < oSolution.getNumberOfLocations() - 3; i++) {
-			totalCost += getCost(
-					oSolution.getSolutionRepresentation()[i],
-					oSolution.getSolutionRepresentation()[i + 1]);
+		for(int i = 0; i < aiRepresentation.length - 1; i++) {
+			totalCost += getCost(aiRepresentation[i], aiRepresentation[i + 1]);
 		}
 
 		// Add cost from last location to airport
-		totalCost += getCostBetweenAirportAnd(
-				oSolution.getSolutionRepresentation()[oSolution.getNumberOfLocations() - 3]);
+		totalCost += getCostBetweenAirportAnd(aiRepresentation[aiRepresentation.length - 1]);
 
 		return totalCost;
 	}
@@ -49,33 +49,70 @@ public class SSPObjectiveFunction implements ObjectiveFunctionInterface {
 	@Override
 	public int getCost(int iLocationA, int iLocationB) {
 
+		DistanceTables tables = oTables;
+		if(tables != null && tables.hasCostMatrix()) {
+			return tables.getCost(iLocationA, iLocationB);
+		}
+
 		Location locA = oInstance.getSightseeingLocation(iLocationA);
 		Location locB = oInstance.getSightseeingLocation(iLocationB);
-		return (int) calculateDistance(locA, locB);
+		return DistanceTables.distance(locA, locB);
 	}
 
 	@Override
 	public int getCostBetweenHotelAnd(int iLocation) {
 
+		DistanceTables tables = oTables;
+		if(tables != null) {
+			return tables.getCostBetweenHotelAnd(iLocation);
+		}
+
 		Location hotel = oInstance.getHotelLocation();
 		Location loc = oInstance.getSightseeingLocation(iLocation);
-		return (int) calculateDistance(hotel, loc);
+		return DistanceTables.distance(hotel, loc);
 	}
 
 	@Override
 	public int getCostBetweenAirportAnd(int iLocation) {
 
+		DistanceTables tables = oTables;
+		if(tables != null) {
+			return tables.getCostBetweenAirportAnd(iLocation);
+		}
+
 		Location airport = oInstance.getAirportLocation();
 		Location loc = oInstance.getSightseeingLocation(iLocation);
-		return (int) calculateDistance(loc, airport);
+		return DistanceTables.distance(loc, airport);
 	}
 
-	private double calculateDistance(Location loc1, Location loc2) {
-		double dx = loc1.x() - loc2.x();
-		double dy = loc1.y() - loc2.y();
-		return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+	/**
+	 * Builds the distance tables and publishes them; costs requested afterwards are table lookups.
+	 * Safe to call from a background thread while other threads are evaluating solutions.
+	 */
+	public void precomputeDistanceTables() {
+
+		int n = oInstance.getNumberOfLocations();
+		Location[] aoLocations = new Location[n];
+		for(int i = 0; i < n; i++) {
+			aoLocations[i] = oInstance.getSightseeingLocation(i);
+		}
+
+		oTables = new DistanceTables(aoLocations, oInstance.getHotelLocation(), oInstance.getAirportLocation());
+	}
+
+	/**
+	 * @return true once the precomputed distance tables have been published.
+	 */
+	public boolean hasDistanceTables() {
+		return oTables != null;
 	}
 
+	@Override
+	public boolean isSymmetric() {
+		return true;
+	}
+
+	@Override
 	public SSPInstanceInterface getInstance() {
 		return oInstance;
 	}
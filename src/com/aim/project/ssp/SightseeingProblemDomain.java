@@ -2,17 +2,23 @@ package com.aim.project.ssp;
 
 
 import com.aim.project.ssp.heuristics.*;
+import com.aim.project.ssp.instance.CoLocatedLocationCollapser;
+import com.aim.project.ssp.instance.HilbertLocationRenumberer;
 import com.aim.project.ssp.instance.InitialisationMode;
 import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.reader.MatrixSSPInstanceReader;
 import com.aim.project.ssp.instance.reader.SSPInstanceReader;
 import com.aim.project.ssp.interfaces.*;
 
 import AbstractClasses.ProblemDomain;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * @author Warren G Jackson
@@ -28,6 +34,35 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 	private SSPSolutionInterface[] solutionMemory;
 	private final HeuristicInterface[] heuristics;
 
+	// A solution outside the memory that crossovers write their child into; the solution a child replaces
+	// in the memory becomes the next spare, so that crossover does not allocate a tour per call
+	private SSPSolutionInterface spareChild;
+
+	// Whether locations with identical coordinates are merged when loading an instance
+	private boolean collapseDuplicates = false;
+
+	// Whether locations are renumbered along a Hilbert curve when loading an instance
+	private boolean hilbertRenumbering = false;
+
+	// How initialiseSolution constructs new solutions
+	private InitialisationMode initialisationMode = InitialisationMode.RANDOM;
+
+	// Timings of the current instance, so that time-to-first-solution is reported separately from the
+	// steady-state throughput reached once the background precomputation has been published
+	private long loadStartNanos;
+	private long firstSolutionNanos = -1;
+	private long steadyStateStartNanos = -1;
+	private long steadyStateStartCalls;
+	private long lastHeuristicCallNanos;
+	private long heuristicCalls;
+
+	// Per memory slot, a bit set over heuristic indices of the local searches that confirmed the slot's
+	// solution is a local optimum of their neighbourhood since it last changed
+	private long[] localOptimumMemo;
+
+	// Per heuristic, the local search calls answered from the memo instead of scanning the neighbourhood
+	private final long[] skippedLocalSearchCalls;
+
 	public SightseeingProblemDomain(long seed) {
         super(seed);
 
@@ -46,7 +81,27 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
                 // Crossover operators
                 new OX(rng),
 				new OnePointX(rng),
+
+				// Further local search operators, appended to keep the indices above stable
+				new OrOpt(rng),
+				new LinKernighan(rng),
+
+				// Ruin-and-recreate operators
+				new RadialRuinRecreate(rng),
+				new StringRuinRecreate(rng),
+
+				// Further mutation operators
+				new DoubleBridge(rng),
+
+				// Further crossover operators
+				new PartitionCrossover(rng),
+				new PathRelinking(rng),
+
+				// Further local search operators
+				new SlidingWindowDP(rng),
         };
+
+		skippedLocalSearchCalls = new long[heuristics.length];
 	}
 	
 	public SSPSolutionInterface getSolution(int index) {
@@ -88,9 +143,20 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		// Create a copy of the source solution to modify
 		SSPSolutionInterface candidateSolution = currentSolution.clone();
 
-		// Apply the heuristic to the candidate solution (default parameters for now)
-		double depthOfSearch = 0.0;
-		double intensityOfMutation = 0.0;
+		// A local search that already confirmed this solution is a local optimum cannot improve it again
+		long bit = 1L << hIndex;
+		if(heuristic instanceof LocalSearchInterface && (localOptimumMemo[currentIndex] & bit) != 0) {
+			skippedLocalSearchCalls[hIndex]++;
+			solutionMemory[candidateIndex] = candidateSolution;
+			localOptimumMemo[candidateIndex] = localOptimumMemo[currentIndex];
+			heuristicCallRecord[hIndex]++;
+			recordHeuristicCall();
+			return candidateSolution.getObjectiveFunctionValue();
+		}
+
+		// Apply the heuristic to the candidate solution with the hyper-heuristic's current parameter settings
+		double depthOfSearch = getDepthOfSearch();
+		double intensityOfMutation = getIntensityOfMutation();
 
 		// Apply the heuristic and get the new objective value
 		double objectiveValue = heuristic.apply(candidateSolution, depthOfSearch, intensityOfMutation);
@@ -98,8 +164,22 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		// Save the candidate solution at the destination index
 		solutionMemory[candidateIndex] = candidateSolution;
 
+		// Local searches only apply improving moves, so an unchanged cost means an unchanged solution whose
+		// earlier confirmations still hold; any other change invalidates them
+		long memo = 0;
+		if(heuristic instanceof LocalSearchInterface localSearch) {
+			if(objectiveValue == currentSolution.getObjectiveFunctionValue()) {
+				memo = localOptimumMemo[currentIndex];
+			}
+			if(localSearch.isLocalOptimumConfirmed()) {
+				memo |= bit;
+			}
+		}
+		localOptimumMemo[candidateIndex] = memo;
+
 		// Record the heuristic call in the parent class
 		heuristicCallRecord[hIndex]++;
+		recordHeuristicCall();
 
 		// Update best solution if necessary
 		if(objectiveValue < getBestSolutionValue() && m_oBestSolution != null) {
@@ -129,21 +209,30 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 			throw new IllegalStateException("Source solutions are null. Did you initialise the solutions?");
 		}
 
-		// Create a copy of the first parent solution to modify
-		SSPSolutionInterface candidateSolution = parent1Solution.clone();
-
-		// Apply the heuristic to the candidate solution (default parameters for now)
-		double depthOfSearch = 0.0;
-		double intensityOfMutation = 0.0;
+		// Apply the heuristic to the candidate solution with the hyper-heuristic's current parameter settings
+		double depthOfSearch = getDepthOfSearch();
+		double intensityOfMutation = getIntensityOfMutation();
 
-		// Apply the heuristic and get the new objective value
-		double objectiveValue = heuristic.apply(candidateSolution, depthOfSearch, intensityOfMutation);
+		SSPSolutionInterface candidateSolution;
+		double objectiveValue;
+		if(heuristic instanceof XOHeuristicInterface crossover) {
+			// Recombine both parents into the spare child, which never aliases a solution in the memory
+			candidateSolution = takeSpareChild(parent1Solution);
+			objectiveValue = crossover.apply(parent1Solution, parent2Solution, candidateSolution, depthOfSearch, intensityOfMutation);
+			spareChild = solutionMemory[candidateIndex];
+		} else {
+			// Create a copy of the first parent solution to modify
+			candidateSolution = parent1Solution.clone();
+			objectiveValue = heuristic.apply(candidateSolution, depthOfSearch, intensityOfMutation);
+		}
 
-		// Save the candidate solution at the destination index
+		// Save the candidate solution at the destination index; its tour is new, so nothing is known about it
 		solutionMemory[candidateIndex] = candidateSolution;
+		localOptimumMemo[candidateIndex] = 0;
 
 		// Record the heuristic call in the parent class
 		heuristicCallRecord[hIndex]++;
+		recordHeuristicCall();
 
 		// Update best solution if necessary
 		if(objectiveValue < getBestSolutionValue() && m_oBestSolution != null) {
@@ -153,6 +242,84 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		return objectiveValue;
 	}
 
+	/**
+	 * @return The spare child solution, or a copy of <code>template</code> if there is no spare for the
+	 * current instance.
+	 */
+	private SSPSolutionInterface takeSpareChild(SSPSolutionInterface template) {
+
+		SSPSolutionInterface child = spareChild;
+		spareChild = null;
+		if(child == null || child.getNumberOfLocations() != template.getNumberOfLocations()) {
+			child = template.clone();
+		}
+		return child;
+	}
+
+	private void recordHeuristicCall() {
+
+		heuristicCalls++;
+		lastHeuristicCallNanos = System.nanoTime();
+
+		// steady state starts with the first call made after the precomputed structures were published
+		if(steadyStateStartNanos == -1 && m_oInstance.isPrecomputationComplete()) {
+			steadyStateStartNanos = System.nanoTime();
+			steadyStateStartCalls = heuristicCalls;
+		}
+	}
+
+	/**
+	 * @return Milliseconds from the start of loadInstance until the first solution was initialised,
+	 * or -1 if no solution has been initialised yet.
+	 */
+	public double getTimeToFirstSolutionMillis() {
+
+		return firstSolutionNanos == -1 ? -1 : (firstSolutionNanos - loadStartNanos) / 1e6;
+	}
+
+	/**
+	 * @return Heuristic applications per second from the first call after the precomputed structures were
+	 * published until the last call, or 0 if the steady state has not been reached yet.
+	 */
+	public double getSteadyStateThroughput() {
+
+		if(steadyStateStartNanos == -1) {
+			return 0;
+		}
+
+		long elapsedNanos = lastHeuristicCallNanos - steadyStateStartNanos;
+		return elapsedNanos == 0 ? 0 : (heuristicCalls - steadyStateStartCalls) * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * @param hIndex The index of a local search heuristic.
+	 * @return How many calls of the heuristic on the current instance returned at once because the solution
+	 * was already known to be a local optimum of its neighbourhood.
+	 */
+	public long getSkippedLocalSearchCalls(int hIndex) {
+
+		return skippedLocalSearchCalls[hIndex];
+	}
+
+	/**
+	 * @return How many local search calls on the current instance were skipped in total.
+	 */
+	public long getSkippedLocalSearchCalls() {
+
+		return Arrays.stream(skippedLocalSearchCalls).sum();
+	}
+
+	/**
+	 * Prints the time-to-first-solution and the steady-state throughput of the current instance.
+	 */
+	public void printTimingStatistics() {
+
+		System.out.printf("Time to first solution: %.3f ms%n", getTimeToFirstSolutionMillis());
+		System.out.printf("Steady-state throughput: %.1f heuristic calls/s (%d calls in total)%n",
+				getSteadyStateThroughput(), heuristicCalls);
+		System.out.printf("Local search calls skipped at known local optima: %d%n", getSkippedLocalSearchCalls());
+	}
+
 	@Override
 	public String bestSolutionToString() {
 
@@ -195,8 +362,9 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 			throw new IllegalStateException("Source solution is null. Ensure the solution is initialised.");
 		}
 
-		// Clone the source solution and store it at the destination index
+		// Clone the source solution and store it at the destination index, along with its local optimality
 		solutionMemory[b] = sourceSolution.clone();
+		localOptimumMemo[b] = localOptimumMemo[a];
 	}
 
 	@Override
@@ -234,17 +402,18 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		// Define which heuristics belong to which types based on their indices
 		return switch (type) {
 			case MUTATION ->
-				// AdjacentSwap (0), Reinsertion (1), and InversionMutation (2) are mutation operators
-					new int[]{0, 1, 2};
+				// AdjacentSwap (0), Reinsertion (1), InversionMutation (2) and DoubleBridge (12) are mutation operators
+					new int[]{0, 1, 2, 12};
 			case LOCAL_SEARCH ->
-				// DavissHillClimbing (3), NextDescent (4), and TwoOpt (5) are local search operators
-					new int[]{3, 4, 5};
+				// DavissHillClimbing (3), NextDescent (4), TwoOpt (5), OrOpt (8), LinKernighan (9) and SlidingWindowDP (15)
+				// are local search operators
+					new int[]{3, 4, 5, 8, 9, 15};
 			case CROSSOVER ->
-				// OX (6) and OnePointX (7) are crossover operators
-					new int[]{6, 7};
+				// OX (6), OnePointX (7), PartitionCrossover (13) and PathRelinking (14) are crossover operators
+					new int[]{6, 7, 13, 14};
 			case RUIN_RECREATE ->
-				// No ruin-recreate heuristics in current implementation
-					null;
+				// RadialRuinRecreate (10) and StringRuinRecreate (11) are ruin-recreate operators
+					new int[]{10, 11};
 			default -> null;
 		};
 	}
@@ -289,7 +458,7 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 	public int getNumberOfHeuristics() {
 
 		// Needs to be hardcoded because of HyFlex
-		return 8;
+		return 16;
 	}
 
 	@Override
@@ -302,17 +471,53 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 	@Override
 	public void initialiseSolution(int index) {
 
-		// Create a new solution
-		SSPSolutionInterface solution = m_oInstance.createSolution(InitialisationMode.RANDOM);
+		// Create a new solution from its own random stream
+		SSPSolutionInterface solution = m_oInstance.createSolution(initialisationMode, new Random(rng.nextLong()));
+
+		storeInitialSolution(index, solution);
+	}
+
+	/**
+	 * Stores a newly initialised solution in the solution memory and updates the best solution.
+	 */
+	private void storeInitialSolution(int index, SSPSolutionInterface solution) {
 
 		// Store it in the solution memory
 		solutionMemory[index] = solution;
+		localOptimumMemo[index] = 0;
+
+		if(firstSolutionNanos == -1) {
+			firstSolutionNanos = System.nanoTime();
+		}
 
 		// Update the best solution if this is the first solution or if the new solution is better
 		if(m_oBestSolution == null || solution.getObjectiveFunctionValue() < m_oBestSolution.getObjectiveFunctionValue()) {
 			m_oBestSolution = solution.clone();
 		}
-}
+	}
+
+	/**
+	 * Initialises every memory slot in parallel on the common fork/join pool. The seed of each slot's
+	 * random stream is drawn from the domain's random number generator up front, in slot order, so
+	 * the initial solutions are the same whatever the number of threads.
+	 */
+	private void initialiseAllSolutions() {
+
+		int size = solutionMemory.length;
+		long[] seeds = new long[size];
+		for(int i = 0; i < size; i++) {
+			seeds[i] = rng.nextLong();
+		}
+
+		SSPSolutionInterface[] solutions = new SSPSolutionInterface[size];
+		InitialisationMode mode = initialisationMode;
+		IntStream.range(0, size).parallel().forEach(
+				i -> solutions[i] = m_oInstance.createSolution(mode, new Random(seeds[i])));
+
+		for(int i = 0; i < size; i++) {
+			storeInitialSolution(i, solutions[i]);
+		}
+	}
 
 	@Override
 	public void loadInstance(int instanceId) {
@@ -322,6 +527,12 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 			throw new IllegalArgumentException("Invalid instance ID: " + instanceId);
 		}
 
+		loadStartNanos = System.nanoTime();
+		firstSolutionNanos = -1;
+		steadyStateStartNanos = -1;
+		heuristicCalls = 0;
+		Arrays.fill(skippedLocalSearchCalls, 0);
+
 		// Map instance IDs to their corresponding files
 		String[] instanceFiles = {
 				"square.ssp",
@@ -336,17 +547,32 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		// Get the filename for the requested instance
 		String filename = instanceFiles[instanceId];
 
-		// Create instance reader and load the instance
-		SSPInstanceReader reader = new SSPInstanceReader();
-
 		// TODO CHANGE PATH FOR LAPTOP
 		String projectRoot = System.getProperty("user.dir"); // Gets the project root directory
 		Path instancePath = Path.of("C:\\Users\\Taohi\\HyFlex-Hyper-Heuristics\\src\\instances\\ssp", filename);
 
+		// Create instance reader, using explicit distances when the instance ships with a distance matrix file
+		SSPInstanceReaderInterface reader = Files.exists(MatrixSSPInstanceReader.getMatrixPath(instancePath))
+				? new MatrixSSPInstanceReader()
+				: new SSPInstanceReader();
+
 		try {
 			// Read the instance file
 			m_oInstance = reader.readSSPInstance(instancePath, rng);
 
+			// Optionally merge duplicate locations so that the search runs on a smaller instance
+			if(collapseDuplicates) {
+				m_oInstance = new CoLocatedLocationCollapser(0).collapse(m_oInstance, rng);
+			}
+
+			// Optionally renumber locations so that spatially local tours access memory locally
+			if(hilbertRenumbering) {
+				m_oInstance = new HilbertLocationRenumberer().renumber(m_oInstance, rng);
+			}
+
+			// Build distance tables in the background so that the search can start straight away
+			m_oInstance.startPrecomputation();
+
 			// Set the objective function in each heuristic
 			ObjectiveFunctionInterface objectiveFunction = m_oInstance.getSSPObjectiveFunction();
 			for(HeuristicInterface heuristic : heuristics) {
@@ -357,15 +583,70 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 			int memorySize = 2;
 			setMemorySize(memorySize);
 
-			// Reset solution memory and best solution
+			// Reset solution memory and best solution; the time to first solution is measured to the
+			// hyper-heuristic's first initialiseSolution, not to the solutions discarded here
 			Arrays.fill(solutionMemory, null);
 			m_oBestSolution = null;
+			firstSolutionNanos = -1;
 
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to load instance: " + filename, e);
 		}
 	}
 
+	/**
+	 * Enables merging of sightseeing locations with identical coordinates into super-nodes when the
+	 * next instance is loaded. Tours are expanded back to the original locations for printing and
+	 * visualisation, at the same cost as the reported objective value.
+	 *
+	 * @param enabled Whether to merge duplicate locations.
+	 */
+	public void setCollapseDuplicates(boolean enabled) {
+
+		this.collapseDuplicates = enabled;
+	}
+
+	/**
+	 * Enables renumbering of the sightseeing locations along a Hilbert curve when the next instance
+	 * is loaded, improving cache locality. Printed and visualised solutions still show the original locations.
+	 *
+	 * @param enabled Whether to renumber the locations.
+	 */
+	public void setHilbertRenumbering(boolean enabled) {
+
+		this.hilbertRenumbering = enabled;
+	}
+
+	/**
+	 * Sets the number of locations from which TwoOpt searches for its moves in parallel and SlidingWindowDP
+	 * optimises its windows in parallel. Neither result depends on the number of threads, but TwoOpt's is
+	 * typically about 1% worse than its sequential search.
+	 *
+	 * @param threshold The number of locations; by default TwoOpt never runs in parallel and SlidingWindowDP
+	 *                  does from SlidingWindowDP.DEFAULT_PARALLEL_THRESHOLD.
+	 */
+	public void setParallelLocalSearchThreshold(int threshold) {
+
+		for(HeuristicInterface heuristic : heuristics) {
+			if(heuristic instanceof TwoOpt twoOpt) {
+				twoOpt.setParallelThreshold(threshold);
+			} else if(heuristic instanceof SlidingWindowDP slidingWindowDP) {
+				slidingWindowDP.setParallelThreshold(threshold);
+			}
+		}
+	}
+
+	/**
+	 * Sets the initialisation method used by initialiseSolution, e.g. SPACE_FILLING_CURVE for a decent
+	 * starting tour on very large instances in O(n log n), or GRASP for a diverse population of good tours.
+	 *
+	 * @param mode The initialisation mode (RANDOM by default).
+	 */
+	public void setInitialisationMode(InitialisationMode mode) {
+
+		this.initialisationMode = mode;
+	}
+
 	@Override
 	public void setMemorySize(int size) {
 
@@ -378,12 +659,12 @@ public class SightseeingProblemDomain extends ProblemDomain implements Visualisa
 		SSPSolutionInterface[] newMemory = new SSPSolutionInterface[size];
 		// (copy over if you want)
 		solutionMemory = newMemory;
+		localOptimumMemo = new long[size];
+		spareChild = null;
 
 		// only initialise if loadInstance() has already set m_oInstance
 		if (m_oInstance != null) {
-			for (int i = 0; i < size; i++) {
-				initialiseSolution(i);
-			}
+			initialiseAllSolutions();
 		}
 	}
 
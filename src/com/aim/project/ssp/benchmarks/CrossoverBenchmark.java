@@ -0,0 +1,65 @@
+package com.aim.project.ssp.benchmarks;
+
+import com.aim.project.ssp.heuristics.OX;
+import com.aim.project.ssp.heuristics.OnePointX;
+import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.interfaces.XOHeuristicInterface;
+
+import java.util.Random;
+
+/**
+ * Measures the cost of one two-parent crossover call as the number of locations grows. The parents are two
+ * random tours and the child is written into the same solution on every call, as in the problem domain.
+ * For an O(n) operator the time per location stays roughly constant across the sizes.
+ */
+public class CrossoverBenchmark {
+
+	private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+
+	// the number of locations processed per heuristic and size
+	private static final long WORK = 200_000_000L;
+
+	// consumes the results so that they cannot be optimised away
+	private static long sink;
+
+	public static void main(String[] args) {
+
+		System.out.println("n\theuristic\tcalls\tus per call\tns per location");
+
+		for(int n : SIZES) {
+			SSPInstance instance = SyntheticInstances.uniform(n, 17032025L);
+			Random random = new Random(17032025L);
+			SSPSolutionInterface parent1 = instance.createSolution(InitialisationMode.RANDOM, random);
+			SSPSolutionInterface parent2 = instance.createSolution(InitialisationMode.RANDOM, random);
+			SSPSolutionInterface child = parent1.clone();
+
+			XOHeuristicInterface[] heuristics = {
+					new OnePointX(new Random(17032025L)),
+					new OX(new Random(17032025L))
+			};
+
+			int calls = (int) Math.max(10, WORK / n);
+			for(XOHeuristicInterface heuristic : heuristics) {
+				heuristic.setObjectiveFunction(instance.getSSPObjectiveFunction());
+
+				// warm up
+				for(int i = 0; i < calls / 4; i++) {
+					sink += (long) heuristic.apply(parent1, parent2, child, 0.0, 0.0);
+				}
+
+				long start = System.nanoTime();
+				for(int i = 0; i < calls; i++) {
+					sink += (long) heuristic.apply(parent1, parent2, child, 0.0, 0.0);
+				}
+				double nanos = System.nanoTime() - start;
+
+				System.out.printf("%d\t%s\t%d\t%.1f\t%.2f%n", n, heuristic.getClass().getSimpleName(), calls,
+						nanos / calls / 1e3, nanos / calls / n);
+			}
+		}
+
+		System.out.println("(checksum " + sink + ")");
+	}
+}
@@ -0,0 +1,72 @@
+package com.aim.project.ssp.benchmarks;
+
+import com.aim.project.ssp.instance.HilbertCurve;
+import com.aim.project.ssp.instance.HilbertLocationRenumberer;
+import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+import com.aim.project.ssp.solution.SolutionRepresentation;
+
+import java.util.Random;
+
+/**
+ * Measures the effect of Hilbert curve renumbering on evaluation throughput. The same spatially local
+ * tour is evaluated over the instance in file order and over the renumbered instance; only the IDs,
+ * and therefore the memory access pattern, differ.
+ *
+ * Throughput is reported directly. For cache misses, run under a profiler, e.g.
+ * <code>perf stat -e cache-misses,cache-references java ... HilbertRenumberingBenchmark</code>.
+ */
+public class HilbertRenumberingBenchmark {
+
+	private static final int[] SIZES = { 10_000, 50_000, 200_000 };
+
+	private static final int REPETITIONS = 200;
+
+	// consumes the evaluation results so that they cannot be optimised away
+	private static long sink;
+
+	public static void main(String[] args) {
+
+		System.out.println("n\tfile order (evals/s)\trenumbered (evals/s)\tspeed-up");
+
+		for(int n : SIZES) {
+			SSPInstance instance = SyntheticInstances.uniform(n, 17032025L);
+			SSPInstanceInterface renumbered = new HilbertLocationRenumberer().renumber(instance, new Random(17032025L));
+
+			// a spatially local tour: Hilbert order, which is 0..n-1 in the renumbered instance
+			Location[] locations = new Location[n];
+			for(int i = 0; i < n; i++) {
+				locations[i] = instance.getSightseeingLocation(i);
+			}
+			int[] fileOrderTour = HilbertCurve.order(locations);
+			int[] renumberedTour = new int[n];
+			for(int i = 0; i < n; i++) {
+				renumberedTour[i] = i;
+			}
+
+			double fileOrder = throughput(instance.getSSPObjectiveFunction(), new SolutionRepresentation(fileOrderTour));
+			double local = throughput(renumbered.getSSPObjectiveFunction(), new SolutionRepresentation(renumberedTour));
+			System.out.printf("%d\t%.1f\t%.1f\t%.2fx%n", n, fileOrder, local, local / fileOrder);
+		}
+	}
+
+	private static double throughput(ObjectiveFunctionInterface f, SolutionRepresentation tour) {
+
+		// warm up
+		long checksum = 0;
+		for(int r = 0; r < REPETITIONS / 4; r++) {
+			checksum += f.getObjectiveFunctionValue(tour);
+		}
+
+		long start = System.nanoTime();
+		for(int r = 0; r < REPETITIONS; r++) {
+			checksum += f.getObjectiveFunctionValue(tour);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		sink += checksum;
+		return REPETITIONS * 1e9 / elapsed;
+	}
+}
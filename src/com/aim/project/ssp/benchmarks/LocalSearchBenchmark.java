@@ -0,0 +1,60 @@
+package com.aim.project.ssp.benchmarks;
+
+import com.aim.project.ssp.heuristics.LinKernighan;
+import com.aim.project.ssp.heuristics.OrOpt;
+import com.aim.project.ssp.heuristics.TwoOpt;
+import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+/**
+ * Compares the tour quality the local search heuristics reach per CPU-second. Each heuristic is applied
+ * repeatedly with the maximum depth of search to the same nearest neighbour tour until it stops improving,
+ * and the final cost, the CPU time and the cost reduction per CPU-second are reported.
+ */
+public class LocalSearchBenchmark {
+
+	private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+
+	public static void main(String[] args) {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		System.out.println("n\theuristic\tstart\tfinal\treduction\tCPU s\treduction per CPU s");
+
+		for(int n : SIZES) {
+			SSPInstance instance = SyntheticInstances.uniform(n, 17032025L);
+			instance.getCandidateGraph();
+			SSPSolutionInterface start = instance.createSolution(InitialisationMode.CONSTRUCTIVE);
+
+			HeuristicInterface[] heuristics = {
+					new TwoOpt(new Random(17032025L)),
+					new OrOpt(new Random(17032025L)),
+					new LinKernighan(new Random(17032025L))
+			};
+
+			for(HeuristicInterface heuristic : heuristics) {
+				heuristic.setObjectiveFunction(instance.getSSPObjectiveFunction());
+				SSPSolutionInterface solution = start.clone();
+
+				long cpuStart = threads.getCurrentThreadCpuTime();
+				int previous;
+				do {
+					previous = solution.getObjectiveFunctionValue();
+					heuristic.apply(solution, 1.0, 0.0);
+				} while(solution.getObjectiveFunctionValue() < previous);
+				double cpuSeconds = (threads.getCurrentThreadCpuTime() - cpuStart) / 1e9;
+
+				int startCost = start.getObjectiveFunctionValue();
+				int finalCost = solution.getObjectiveFunctionValue();
+				System.out.printf("%d\t%s\t%d\t%d\t%.2f%%\t%.3f\t%.0f%n", n, heuristic.getClass().getSimpleName(),
+						startCost, finalCost, 100.0 * (startCost - finalCost) / startCost, cpuSeconds,
+						(startCost - finalCost) / cpuSeconds);
+			}
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.aim.project.ssp.benchmarks;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.SSPInstance;
+
+/**
+ * Generates large random instances for the benchmarks, as the bundled instances have at most 100 locations.
+ */
+public class SyntheticInstances {
+
+	private SyntheticInstances() {
+	}
+
+	/**
+	 * @param n The number of sightseeing locations.
+	 * @param seed The seed used to place the locations.
+	 * @return An instance with locations spread uniformly over a square, listed in random order,
+	 * with the HOTEL and AIRPORT in opposite corners.
+	 */
+	public static SSPInstance uniform(int n, long seed) {
+
+		Random random = new Random(seed);
+		int side = (int) Math.ceil(Math.sqrt(n) * 100);
+
+		Location[] locations = new Location[n];
+		for(int i = 0; i < n; i++) {
+			locations[i] = new Location(random.nextInt(side), random.nextInt(side));
+		}
+
+		return new SSPInstance(n, locations, new Location(0, 0), new Location(side, side), random);
+	}
+}
@@ -40,6 +40,9 @@ public class AdjacentSwap extends HeuristicOperators implements HeuristicInterfa
 
 			// Perform the adjacent swap
 			swap(solutionArray, position, position + 1);
+
+			// Only the locations whose edges changed need to be looked at by the next local search
+			activatePositions(solution, solutionArray, position - 1, position + 2);
 		}
 
 		// Calculate new objective value
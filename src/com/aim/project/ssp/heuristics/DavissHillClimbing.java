@@ -1,12 +1,9 @@
 package com.aim.project.ssp.heuristics;
 
 import java.util.Random;
-import java.util.stream.IntStream;
 
-import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.LocalSearchInterface;
 import com.aim.project.ssp.interfaces.SSPSolutionInterface;
-import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
-import com.aim.project.ssp.solution.SolutionRepresentation;
 
 
 /**
@@ -17,7 +14,13 @@ import com.aim.project.ssp.solution.SolutionRepresentation;
  * See `COMP2001-Project-2025.docx` for further details.
  *
  */
-public class DavissHillClimbing extends HeuristicOperators implements HeuristicInterface {
+public class DavissHillClimbing extends HeuristicOperators implements LocalSearchInterface {
+
+	// positions of the adjacent swaps, in the order they are tried
+	private int[] indices;
+
+	// whether the last call ended with a full pass that found no improving swap
+	private boolean localOptimumConfirmed;
 	
 	public DavissHillClimbing(Random random) {
 	
@@ -27,35 +30,38 @@ public class DavissHillClimbing extends HeuristicOperators implements HeuristicI
 	@Override
 	public double apply(SSPSolutionInterface solution, double dos, double iom) {
 
-		SolutionRepresentationInterface representation = solution.getSolutionRepresentation();
-		int[] currentSolution = representation.getSolutionRepresentation().clone();
+		int[] currentSolution = solution.getSolutionRepresentation().getSolutionRepresentation();
 		int currentCost = solution.getObjectiveFunctionValue();
 		int length = currentSolution.length;
 
 		int iterations = calculateNumberOfIterations(dos);
 		boolean improvementFound;
+		localOptimumConfirmed = false;
+
+		// Reuse the permutation of swap positions; reshuffling a permutation keeps it uniformly random
+		if(indices == null || indices.length != Math.max(0, length - 1)) {
+			indices = new int[Math.max(0, length - 1)];
+			for(int i = 0; i < indices.length; i++) {
+				indices[i] = i;
+			}
+		}
 
 		for(int iter = 0; iter < iterations; iter++) {
 			improvementFound = false;
 
 			// Create random order of indices to try swaps
-			int[] indices = IntStream.range(0, length - 1).toArray();
 			shuffleArray(indices);
 
 			// Try all possible adjacent swaps in random order
 			for(int i : indices) {
-				// Create neighbor by swapping adjacent elements
-				int[] neighbor = currentSolution.clone();
-				swap(neighbor, i, i + 1);
-
-				// Evaluate neighbor
-				int neighborCost = m_oObjectiveFunction.getObjectiveFunctionValue(
-						new SolutionRepresentation(neighbor));
+				// Evaluate the swap in constant time, without changing the solution
+				int delta = adjacentSwapDelta(currentSolution, i);
 
 				// If improvement found, accept it and restart
-				if(neighborCost < currentCost) {
-					System.arraycopy(neighbor, 0, currentSolution, 0, length);
-					currentCost = neighborCost;
+				if(delta < 0) {
+					swap(currentSolution, i, i + 1);
+					activatePositions(solution, currentSolution, i - 1, i + 2);
+					currentCost += delta;
 					improvementFound = true;
 					break; // Restart with new solution
 				}
@@ -63,19 +69,22 @@ public class DavissHillClimbing extends HeuristicOperators implements HeuristicI
 
 			// If no improvement found in full pass, terminate
 			if(!improvementFound) {
+				localOptimumConfirmed = true;
 				break;
 			}
 		}
 
-		// Update the solution if improvements were found
-		if(currentCost != solution.getObjectiveFunctionValue()) {
-			representation.setSolutionRepresentation(currentSolution);
-			solution.setObjectiveFunctionValue(currentCost);
-		}
+		solution.setObjectiveFunctionValue(currentCost);
 
 		return currentCost;
 	}
 
+	@Override
+	public boolean isLocalOptimumConfirmed() {
+
+		return localOptimumConfirmed;
+	}
+
 	@Override
 	public boolean isCrossover() {
 
@@ -0,0 +1,133 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+/**
+ * Double-bridge kick: cuts the tour into A B C D and reconnects it as A C B D. On a path with fixed ends this
+ * replaces three edges and moves B after C without reversing either. B and C are at least MIN_SEGMENT_LENGTH
+ * long whenever the tour allows it, longer than the segments OrOpt moves, so that a single Or-opt or 2-opt
+ * move cannot undo the kick. The two middle segments are exchanged as a rotation through a reusable scratch
+ * buffer holding the shorter one, and the cost is updated from the changed edges in O(1).
+ *
+ * On instances with more than LOCAL_KICK_THRESHOLD locations, B and C are at most MAX_LOCAL_SEGMENT_LENGTH
+ * long, so that the kick stays local and costs O(1) to apply. intensityOfMutation sets the number of kicks (1 to 5).
+ */
+public class DoubleBridge extends HeuristicOperators implements HeuristicInterface {
+
+	private static final int LOCAL_KICK_THRESHOLD = 1000;
+
+	private static final int MAX_LOCAL_SEGMENT_LENGTH = 50;
+
+	private static final int MIN_SEGMENT_LENGTH = OrOpt.MAX_SEGMENT_LENGTH + 1;
+
+	private int[] scratch = new int[0];
+
+	public DoubleBridge(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if(n < 2) {
+			return cost;
+		}
+
+		int numberOfKicks = calculateNumberOfKicks(intensityOfMutation);
+		for(int kick = 0; kick < numberOfKicks; kick++) {
+			// B = [i, j) and C = [j, k), both non-empty and, if the tour is long enough, both at least MIN_SEGMENT_LENGTH
+			int i, j, k;
+			if(n > LOCAL_KICK_THRESHOLD) {
+				i = m_oRandom.nextInt(n - 2 * MIN_SEGMENT_LENGTH + 1);
+				j = i + MIN_SEGMENT_LENGTH
+						+ m_oRandom.nextInt(Math.min(MAX_LOCAL_SEGMENT_LENGTH, n - i - MIN_SEGMENT_LENGTH) - MIN_SEGMENT_LENGTH + 1);
+				k = j + MIN_SEGMENT_LENGTH
+						+ m_oRandom.nextInt(Math.min(MAX_LOCAL_SEGMENT_LENGTH, n - j) - MIN_SEGMENT_LENGTH + 1);
+			} else {
+				boolean longEnough = n >= 2 * MIN_SEGMENT_LENGTH;
+				do {
+					i = m_oRandom.nextInt(n + 1);
+					do {
+						j = m_oRandom.nextInt(n + 1);
+					} while(j == i);
+					do {
+						k = m_oRandom.nextInt(n + 1);
+					} while(k == i || k == j);
+					int lo = Math.min(i, Math.min(j, k)), hi = Math.max(i, Math.max(j, k));
+					j = i + j + k - lo - hi;
+					i = lo;
+					k = hi;
+				} while(longEnough && (j - i < MIN_SEGMENT_LENGTH || k - j < MIN_SEGMENT_LENGTH));
+			}
+
+			int a = nodeAt(tour, i - 1), b1 = tour[i], b2 = tour[j - 1], c1 = tour[j], c2 = tour[k - 1], d = nodeAt(tour, k);
+			cost += getCost(a, c1) + getCost(c2, b1) + getCost(b2, d) - getCost(a, b1) - getCost(b2, c1) - getCost(c2, d);
+
+			exchange(tour, i, j, k);
+
+			solution.activateNode(a);
+			solution.activateNode(b1);
+			solution.activateNode(b2);
+			solution.activateNode(c1);
+			solution.activateNode(c2);
+			solution.activateNode(d);
+		}
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	/**
+	 * Exchanges the adjacent segments [i, j) and [j, k) of the tour.
+	 */
+	private void exchange(int[] tour, int i, int j, int k) {
+
+		int lengthB = j - i, lengthC = k - j;
+		if(scratch.length < Math.min(lengthB, lengthC)) {
+			scratch = new int[Math.min(lengthB, lengthC)];
+		}
+
+		if(lengthB <= lengthC) {
+			System.arraycopy(tour, i, scratch, 0, lengthB);
+			System.arraycopy(tour, j, tour, i, lengthC);
+			System.arraycopy(scratch, 0, tour, i + lengthC, lengthB);
+		} else {
+			System.arraycopy(tour, j, scratch, 0, lengthC);
+			System.arraycopy(tour, i, tour, i + lengthC, lengthB);
+			System.arraycopy(scratch, 0, tour, i, lengthC);
+		}
+	}
+
+	private int calculateNumberOfKicks(double intensityOfMutation) {
+		if(intensityOfMutation < 0.2) return 1;
+		if(intensityOfMutation < 0.4) return 2;
+		if(intensityOfMutation < 0.6) return 3;
+		if(intensityOfMutation < 0.8) return 4;
+		return 5; // For intensityOfMutation >= 0.8
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return false;
+	}
+}
@@ -1,6 +1,10 @@
 package com.aim.project.ssp.heuristics;
 
+import com.aim.project.ssp.instance.CandidateGraph;
+import com.aim.project.ssp.instance.KDTree;
 import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.solution.ActiveNodeQueue;
 
 import java.util.Random;
 
@@ -14,6 +18,13 @@ import java.util.Random;
  */
 public class HeuristicOperators {
 
+	/**
+	 * Node IDs standing for the HOTEL before the first position of a tour and the AIRPORT after its last.
+	 */
+	protected static final int HOTEL = -1;
+
+	protected static final int AIRPORT = -2;
+
 	protected ObjectiveFunctionInterface m_oObjectiveFunction;
 
 	protected Random m_oRandom;
@@ -28,6 +39,149 @@ public class HeuristicOperators {
 		m_oObjectiveFunction = f;
 	}
 
+	/**
+	 * @return The spatial index of the instance being solved, for heuristics that need spatial queries.
+	 */
+	protected KDTree getSpatialIndex() {
+
+		return m_oObjectiveFunction.getInstance().getSpatialIndex();
+	}
+
+	/**
+	 * @return The candidate-edge graph of the instance being solved, for restricted local search.
+	 */
+	protected CandidateGraph getCandidateGraph() {
+
+		return m_oObjectiveFunction.getInstance().getCandidateGraph();
+	}
+
+	/**
+	 * @return The location at <code>position</code> of the tour, or HOTEL / AIRPORT just outside it.
+	 */
+	protected static int nodeAt(int[] tour, int position) {
+
+		return position < 0 ? HOTEL : position >= tour.length ? AIRPORT : tour[position];
+	}
+
+	/**
+	 * @return The cost of travelling from <code>iFrom</code> (a location or HOTEL) to <code>iTo</code>
+	 * (a location or AIRPORT).
+	 */
+	protected int getCost(int iFrom, int iTo) {
+
+		if(iFrom == HOTEL) {
+			return iTo == AIRPORT ? 0 : m_oObjectiveFunction.getCostBetweenHotelAnd(iTo);
+		} else if(iTo == AIRPORT) {
+			return m_oObjectiveFunction.getCostBetweenAirportAnd(iFrom);
+		} else {
+			return m_oObjectiveFunction.getCost(iFrom, iTo);
+		}
+	}
+
+	/**
+	 * @return The change in tour cost from reversing positions <code>l .. r</code> of the tour, in O(1)
+	 * for symmetric costs and O(r - l) otherwise.
+	 */
+	protected int reversalDelta(int[] tour, int l, int r) {
+
+		int prev = nodeAt(tour, l - 1), next = nodeAt(tour, r + 1);
+		int delta = getCost(prev, tour[r]) + getCost(tour[l], next) - getCost(prev, tour[l]) - getCost(tour[r], next);
+		if(!m_oObjectiveFunction.isSymmetric()) {
+			for(int k = l; k < r; k++) {
+				delta += m_oObjectiveFunction.getCost(tour[k + 1], tour[k]) - m_oObjectiveFunction.getCost(tour[k], tour[k + 1]);
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * @return The change in tour cost from swapping the locations at positions <code>i</code> and <code>i + 1</code>,
+	 * in O(1).
+	 */
+	protected int adjacentSwapDelta(int[] tour, int i) {
+
+		int prev = nodeAt(tour, i - 1), a = tour[i], b = tour[i + 1], next = nodeAt(tour, i + 2);
+		return getCost(prev, b) + getCost(b, a) + getCost(a, next) - getCost(prev, a) - getCost(a, b) - getCost(b, next);
+	}
+
+	/**
+	 * @return The change in tour cost from swapping the locations at positions <code>i</code> and <code>j</code>,
+	 * in O(1).
+	 */
+	protected int swapDelta(int[] tour, int i, int j) {
+
+		if(i > j) {
+			return swapDelta(tour, j, i);
+		} else if(i == j) {
+			return 0;
+		} else if(j == i + 1) {
+			return adjacentSwapDelta(tour, i);
+		}
+
+		int a = tour[i], b = tour[j];
+		int prevA = nodeAt(tour, i - 1), nextA = tour[i + 1], prevB = tour[j - 1], nextB = nodeAt(tour, j + 1);
+		return getCost(prevA, b) + getCost(b, nextA) + getCost(prevB, a) + getCost(a, nextB)
+				- getCost(prevA, a) - getCost(a, nextA) - getCost(prevB, b) - getCost(b, nextB);
+	}
+
+	/**
+	 * Reverses positions <code>l .. r</code> of the tour in place, keeping the inverse array
+	 * <code>positions</code> (location ID to tour position) up to date.
+	 */
+	protected static void reverse(int[] tour, int[] positions, int l, int r) {
+
+		while(l < r) {
+			int a = tour[l], b = tour[r];
+			tour[l] = b;
+			positions[b] = l++;
+			tour[r] = a;
+			positions[a] = r--;
+		}
+	}
+
+	/**
+	 * Fills <code>positions</code> with the inverse of the tour, reallocating it if it is missing or too short.
+	 *
+	 * @return The (possibly new) positions array.
+	 */
+	protected static int[] positionsOf(int[] tour, int[] positions) {
+
+		if(positions == null || positions.length < tour.length) {
+			positions = new int[tour.length];
+		}
+		for(int i = 0; i < tour.length; i++) {
+			positions[tour[i]] = i;
+		}
+		return positions;
+	}
+
+	/**
+	 * @return The don't-look bits of a neighbourhood on the solution, attaching a queue with every location
+	 * active if the solution has none yet.
+	 */
+	protected static ActiveNodeQueue getActiveNodeQueue(SSPSolutionInterface solution, int neighbourhood) {
+
+		ActiveNodeQueue queue = solution.getActiveNodeQueue(neighbourhood);
+		if(queue == null) {
+			int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+			queue = new ActiveNodeQueue(tour.length);
+			queue.activateAll(tour);
+			solution.setActiveNodeQueue(neighbourhood, queue);
+		}
+		return queue;
+	}
+
+	/**
+	 * Turns off the don't-look bits of the locations at positions <code>from .. to</code> of the tour
+	 * (positions outside the tour are ignored).
+	 */
+	protected static void activatePositions(SSPSolutionInterface solution, int[] tour, int from, int to) {
+
+		for(int p = Math.max(0, from); p <= Math.min(tour.length - 1, to); p++) {
+			solution.activateNode(tour[p]);
+		}
+	}
+
 	protected void swap(int[] array, int i, int j) {
 		int temp = array[i];
 		array[i] = array[j];
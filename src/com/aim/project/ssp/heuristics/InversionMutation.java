@@ -39,6 +39,10 @@ public class InversionMutation extends HeuristicOperators implements HeuristicIn
                 j = tmp;
             }
 
+            // only the locations at the two changed edges need to be looked at by the next local search
+            activatePositions(solution, sol, i - 1, i);
+            activatePositions(solution, sol, j, j + 1);
+
             // reverse subsequence [i..j]
             while (i < j) {
                 int tmp = sol[i];
@@ -0,0 +1,215 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.CandidateGraph;
+import com.aim.project.ssp.interfaces.LocalSearchInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.solution.ActiveNodeQueue;
+
+/**
+ * Lin-Kernighan style variable-depth local search built from chained 2-opt reversals.
+ *
+ * Starting at a queued location t1, the edge to its neighbour t2 is broken and the chain repeatedly adds an
+ * edge from the free end t2 to a candidate neighbour t3, breaking the edge (t3, t4) that lets the path be
+ * closed by a reversal, so that t4 becomes the new free end. A step is only taken while the running gain
+ * stays positive (the gain criterion), edges added by the chain are never broken again, and at each step
+ * the candidate with the best one-step lookahead is chosen. Each step is evaluated in O(1) and applied in
+ * place; afterwards the chain is rolled back to its best prefix.
+ *
+ * depthOfSearch sets both the maximum chain depth (3 to 11 steps) and the effort, as for TwoOpt.
+ */
+public class LinKernighan extends HeuristicOperators implements LocalSearchInterface {
+
+	// longer reversals cost O(n) to apply and roll back, so they are only taken when they improve the tour at once
+	private static final int MAX_REVERSAL_LENGTH = 1000;
+
+	private int[] positions;
+
+	// whether the last call ran until every don't-look bit was set
+	private boolean localOptimumConfirmed;
+
+	// reversal ranges of the current chain, and the locations at the ends of the reversed parts
+	private int[] stepLefts, stepRights, stepEndpoints, addedFrom, addedTo;
+
+	public LinKernighan(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if(n < 3) {
+			localOptimumConfirmed = true;
+			return cost;
+		}
+
+		CandidateGraph candidates = getCandidateGraph();
+		positions = positionsOf(tour, positions);
+
+		// the don't-look bits persist on the solution, so only locations disturbed since the last call are active
+		ActiveNodeQueue queue = getActiveNodeQueue(solution, ActiveNodeQueue.LIN_KERNIGHAN);
+
+		int iterations = calculateNumberOfIterations(depthOfSearch);
+		int maxDepth = 2 * iterations + 1;
+		if(stepLefts == null || stepLefts.length < maxDepth) {
+			stepLefts = new int[maxDepth];
+			stepRights = new int[maxDepth];
+			stepEndpoints = new int[4 * maxDepth];
+			addedFrom = new int[maxDepth];
+			addedTo = new int[maxDepth];
+		}
+
+		long budget = (long) iterations * n;
+		for(long examined = 0; examined < budget && !queue.isEmpty(); examined++) {
+			int t1 = queue.poll();
+			int p = positions[t1];
+
+			// break the edge to the successor first, then the edge to the predecessor
+			int delta = 0;
+			if(p + 1 < n) {
+				delta = improveFrom(solution, tour, t1, tour[p + 1], maxDepth, candidates);
+			}
+			if(delta == 0 && p > 0) {
+				delta = improveFrom(solution, tour, t1, tour[positions[t1] - 1], maxDepth, candidates);
+			}
+			cost += delta;
+		}
+
+		localOptimumConfirmed = queue.isEmpty();
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	@Override
+	public boolean isLocalOptimumConfirmed() {
+
+		return localOptimumConfirmed;
+	}
+
+	/**
+	 * Runs one chain from t1 after breaking the tour edge between t1 and t2, keeping its best prefix.
+	 *
+	 * @return The (non-positive) change in tour cost.
+	 */
+	private int improveFrom(SSPSolutionInterface solution, int[] tour, int t1, int t2, int maxDepth, CandidateGraph candidates) {
+
+		int[] offsets = candidates.getOffsets();
+		int[] neighbours = candidates.getNeighbours();
+
+		int depth = 0, bestDepth = 0;
+		int total = 0, bestTotal = 0;
+
+		while(depth < maxDepth && t2 >= 0) {
+			int p1 = positions[t1], p2 = positions[t2];
+			boolean successor = p2 == p1 + 1;
+			int freeEdge = successor ? getCost(t1, t2) : getCost(t2, t1);
+
+			// choose t3 by the lookahead c(t3, t4) - c(t2, t3) among candidates passing the gain criterion
+			int bestLookahead = Integer.MIN_VALUE, bestL = -1, bestR = -1, bestT3 = -1, bestT4 = -1;
+			for(int k = offsets[t2]; k < offsets[t2 + 1]; k++) {
+				int t3 = neighbours[k];
+				int added = getCost(t2, t3);
+				if(freeEdge - total - added <= 0) {
+					break; // candidates are sorted by cost
+				}
+
+				int q = positions[t3];
+				if(q == p2 - 1 || q == p2 + 1) {
+					continue; // already a tour edge
+				}
+
+				int t4, l, r;
+				if(successor) {
+					if(q > p2) {
+						t4 = tour[q - 1]; l = p2; r = q - 1;
+					} else {
+						t4 = nodeAt(tour, q - 1); l = q; r = p1;
+					}
+				} else {
+					if(q < p2) {
+						t4 = tour[q + 1]; l = q + 1; r = p2;
+					} else {
+						t4 = nodeAt(tour, q + 1); l = p1; r = q;
+					}
+				}
+				if((r - l > MAX_REVERSAL_LENGTH && total + reversalDelta(tour, l, r) >= bestTotal) || wasAdded(depth, t3, t4)) {
+					continue;
+				}
+
+				int removed = successor ? getCost(t4, t3) : getCost(t3, t4);
+				int lookahead = removed - added;
+				if(lookahead > bestLookahead) {
+					bestLookahead = lookahead;
+					bestL = l; bestR = r; bestT3 = t3; bestT4 = t4;
+				}
+			}
+
+			if(bestT3 == -1) {
+				break;
+			}
+
+			// apply the step in place, recording it so that it can be rolled back
+			total += reversalDelta(tour, bestL, bestR);
+			stepEndpoints[4 * depth] = nodeAt(tour, bestL - 1);
+			stepEndpoints[4 * depth + 1] = tour[bestL];
+			stepEndpoints[4 * depth + 2] = tour[bestR];
+			stepEndpoints[4 * depth + 3] = nodeAt(tour, bestR + 1);
+			reverse(tour, positions, bestL, bestR);
+			stepLefts[depth] = bestL;
+			stepRights[depth] = bestR;
+			addedFrom[depth] = t2;
+			addedTo[depth] = bestT3;
+			depth++;
+
+			if(total < bestTotal) {
+				bestTotal = total;
+				bestDepth = depth;
+			}
+			t2 = bestT4;
+		}
+
+		// roll back to the best prefix of the chain
+		for(int d = depth - 1; d >= bestDepth; d--) {
+			reverse(tour, positions, stepLefts[d], stepRights[d]);
+		}
+		for(int e = 0; e < 4 * bestDepth; e++) {
+			solution.activateNode(stepEndpoints[e]);
+		}
+
+		return bestTotal;
+	}
+
+	private boolean wasAdded(int depth, int a, int b) {
+
+		for(int d = 0; d < depth; d++) {
+			if((addedFrom[d] == a && addedTo[d] == b) || (addedFrom[d] == b && addedTo[d] == a)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+}
@@ -3,10 +3,8 @@ package com.aim.project.ssp.heuristics;
 
 import java.util.Random;
 
-import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.LocalSearchInterface;
 import com.aim.project.ssp.interfaces.SSPSolutionInterface;
-import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
-import com.aim.project.ssp.solution.SolutionRepresentation;
 
 
 /**
@@ -17,7 +15,10 @@ import com.aim.project.ssp.solution.SolutionRepresentation;
  * See `COMP2001-Project-2025.docx` for further details.
  *
  */
-public class NextDescent extends HeuristicOperators implements HeuristicInterface {
+public class NextDescent extends HeuristicOperators implements LocalSearchInterface {
+
+	// whether the last call found no improving swap at all
+	private boolean localOptimumConfirmed;
 	
 	public NextDescent(Random random) {
 	
@@ -27,8 +28,7 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 	@Override
 	public double apply(SSPSolutionInterface solution, double dos, double iom) {
 
-		SolutionRepresentationInterface representation = solution.getSolutionRepresentation();
-		int[] currentSolution = representation.getSolutionRepresentation().clone();
+		int[] currentSolution = solution.getSolutionRepresentation().getSolutionRepresentation();
 		int currentCost = solution.getObjectiveFunctionValue();
 		int length = currentSolution.length;
 
@@ -39,27 +39,31 @@ public class NextDescent extends HeuristicOperators implements HeuristicInterfac
 		for (int iter = 0; iter < iterations && !improvementFound; iter++) {
 			// Try all possible adjacent swaps
 			for (int i = 0; i < length - 1 && !improvementFound; i++) {
-				// Create neighbor by swapping adjacent elements
-				int[] neighbor = currentSolution.clone();
-				swap(neighbor, i, i + 1);
-
-				// Evaluate neighbor
-				int neighborCost = m_oObjectiveFunction.getObjectiveFunctionValue(
-						new SolutionRepresentation(neighbor));
+				// Evaluate the swap in constant time, without changing the solution
+				int delta = adjacentSwapDelta(currentSolution, i);
 
 				// If improvement found, accept it immediately
-				if (neighborCost < currentCost) {
-					representation.setSolutionRepresentation(neighbor);
-					solution.setObjectiveFunctionValue(neighborCost);
-					currentCost = neighborCost;
+				if (delta < 0) {
+					swap(currentSolution, i, i + 1);
+					activatePositions(solution, currentSolution, i - 1, i + 2);
+					currentCost += delta;
+					solution.setObjectiveFunctionValue(currentCost);
 					improvementFound = true;
 				}
 			}
 		}
 
+		localOptimumConfirmed = !improvementFound;
+
 		return currentCost;
 	}
 
+	@Override
+	public boolean isLocalOptimumConfirmed() {
+
+		return localOptimumConfirmed;
+	}
+
 	@Override
 	public boolean isCrossover() {
 
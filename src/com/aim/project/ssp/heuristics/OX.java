@@ -20,6 +20,9 @@ public class OX implements XOHeuristicInterface {
 	
 	private ObjectiveFunctionInterface f;
 
+	// marks the locations copied from parent1; cleared again after each call
+	private boolean[] inSegment = new boolean[0];
+
 	public OX(Random random) {
 		
 		this.random = random;
@@ -40,6 +43,14 @@ public class OX implements XOHeuristicInterface {
 		int[] parent2 = p2.getSolutionRepresentation().getSolutionRepresentation();
 		int length = parent1.length;
 
+		// Too short to leave anything for parent2, so the child is a copy of parent1
+		if (length < 3) {
+			System.arraycopy(parent1, 0, c.getSolutionRepresentation().getSolutionRepresentation(), 0, length);
+			c.resetActiveNodes();
+			c.setObjectiveFunctionValue(p1.getObjectiveFunctionValue());
+			return p1.getObjectiveFunctionValue();
+		}
+
 		// Select two cut points (ensuring at least one element outside the segment)
 		int cut1 = random.nextInt(length - 1);
 		int cut2;
@@ -47,9 +58,11 @@ public class OX implements XOHeuristicInterface {
 			cut2 = random.nextInt(length);
 		} while (cut2 <= cut1 || (cut2 - cut1) >= length - 1);
 
-		// Create child solution
-		int[] child = new int[length];
-		boolean[] inSegment = new boolean[length];
+		// Write the child into the tour of c, which must not be either parent
+		int[] child = c.getSolutionRepresentation().getSolutionRepresentation();
+		if(inSegment.length < length) {
+			inSegment = new boolean[length];
+		}
 
 		// Copy segment from parent1 to child
 		for (int i = cut1; i <= cut2; i++) {
@@ -70,8 +83,12 @@ public class OX implements XOHeuristicInterface {
 			parent2Pos = (parent2Pos + 1) % length;
 		}
 
-		// Update child solution
-		c.getSolutionRepresentation().setSolutionRepresentation(child);
+		for (int i = cut1; i <= cut2; i++) {
+			inSegment[child[i]] = false;
+		}
+
+		// Update child solution; the tour is new, so every location is active for the next local search
+		c.resetActiveNodes();
 		int newValue = f.getObjectiveFunctionValue(c.getSolutionRepresentation());
 		c.setObjectiveFunctionValue(newValue);
 
@@ -2,16 +2,21 @@ package com.aim.project.ssp.heuristics;
 
 import java.util.Random;
 
-import com.aim.project.ssp.interfaces.HeuristicInterface;
-import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
 import com.aim.project.ssp.interfaces.SSPSolutionInterface;
 import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
+import com.aim.project.ssp.interfaces.XOHeuristicInterface;
 
 /**
- * A one-point crossover that pairs the current solution with a freshly generated random solution.
- * Takes a random cut point and combines the first part of parent1 with the second part of parent2.
+ * A one-point crossover: takes a random cut point and combines the first part of parent1 with the remaining
+ * locations in the order they appear in parent2. Runs in O(n) using a visited bitset owned by the operator.
+ *
+ * Applied to a single solution, parent2 is a uniformly random tour, which is the same as shuffling the
+ * locations after the cut point in place.
  */
-public class OnePointX extends HeuristicOperators implements HeuristicInterface {
+public class OnePointX extends HeuristicOperators implements XOHeuristicInterface {
+
+    // marks the locations in the child's first part; cleared again after each call
+    private boolean[] visited = new boolean[0];
 
     public OnePointX(Random random) {
         super(random);
@@ -19,59 +24,73 @@ public class OnePointX extends HeuristicOperators implements HeuristicInterface
 
     @Override
     public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
-        // Get the existing solution representation
-        SolutionRepresentationInterface rep1 = solution.getSolutionRepresentation();
-        int[] parent1 = rep1.getSolutionRepresentation();
+        SolutionRepresentationInterface rep = solution.getSolutionRepresentation();
+        int[] tour = rep.getSolutionRepresentation();
+        int n = tour.length;
+        if (n < 3) {
+            return solution.getObjectiveFunctionValue();
+        }
+
+        // Choose a random crossover point (excluding 0 and n to ensure mix)
+        int crossoverPoint = 1 + m_oRandom.nextInt(n - 2);
+
+        // The locations after the cut point in the order of a random parent2
+        for (int i = n - 1; i > crossoverPoint; i--) {
+            swap(tour, i, crossoverPoint + m_oRandom.nextInt(i - crossoverPoint + 1));
+        }
+
+        // Update solution; the tour is new, so every location is active for the next local search
+        solution.resetActiveNodes();
+        int newValue = m_oObjectiveFunction.getObjectiveFunctionValue(rep);
+        solution.setObjectiveFunctionValue(newValue);
+
+        return newValue;
+    }
+
+    @Override
+    public double apply(SSPSolutionInterface p1, SSPSolutionInterface p2, SSPSolutionInterface c,
+                        double depthOfSearch, double intensityOfMutation) {
+        int[] parent1 = p1.getSolutionRepresentation().getSolutionRepresentation();
+        int[] parent2 = p2.getSolutionRepresentation().getSolutionRepresentation();
         int n = parent1.length;
 
-        // Create a randomized second parent by cloning the first and shuffling
-        int[] parent2 = parent1.clone();
-        shuffleArray(parent2);
+        // Write the offspring into the tour of c, which must not be either parent
+        int[] offspring = c.getSolutionRepresentation().getSolutionRepresentation();
+        if (n < 3) {
+            System.arraycopy(parent1, 0, offspring, 0, n);
+            c.resetActiveNodes();
+            c.setObjectiveFunctionValue(p1.getObjectiveFunctionValue());
+            return p1.getObjectiveFunctionValue();
+        }
+        if (visited.length < n) {
+            visited = new boolean[n];
+        }
 
         // Choose a random crossover point (excluding 0 and n to ensure mix)
         int crossoverPoint = 1 + m_oRandom.nextInt(n - 2);
 
-        // Create offspring by taking first part of parent1 and second part of parent2
-        int[] offspring = new int[n];
-
         // Copy first part from parent1
-        System.arraycopy(parent1, 0, offspring, 0, crossoverPoint);
+        for (int i = 0; i < crossoverPoint; i++) {
+            offspring[i] = parent1[i];
+            visited[parent1[i]] = true;
+        }
 
-        // Copy second part from parent2, ensuring no duplicates
+        // Copy the other locations in parent2's order
         int offspringPos = crossoverPoint;
         for (int i = 0; i < n; i++) {
-            boolean alreadyExists = false;
-            for (int j = 0; j < crossoverPoint; j++) {
-                if (parent2[i] == offspring[j]) {
-                    alreadyExists = true;
-                    break;
-                }
-            }
-
-            if (!alreadyExists && offspringPos < n) {
+            if (!visited[parent2[i]]) {
                 offspring[offspringPos++] = parent2[i];
             }
         }
 
-        // If we somehow didn't fill the array, fill remaining positions
-        // (shouldn't happen for valid permutation representation)
-        if (offspringPos < n) {
-            boolean[] used = new boolean[n];
-            for (int i = 0; i < offspringPos; i++) {
-                used[offspring[i] - 1] = true; // assuming 1-based values
-            }
-
-            for (int i = 0; i < n && offspringPos < n; i++) {
-                if (!used[i]) {
-                    offspring[offspringPos++] = i + 1;
-                }
-            }
+        for (int i = 0; i < crossoverPoint; i++) {
+            visited[offspring[i]] = false;
         }
 
-        // Update solution
-        rep1.setSolutionRepresentation(offspring);
-        int newValue = m_oObjectiveFunction.getObjectiveFunctionValue(rep1);
-        solution.setObjectiveFunctionValue(newValue);
+        // Update child solution; the tour is new, so every location is active for the next local search
+        c.resetActiveNodes();
+        int newValue = m_oObjectiveFunction.getObjectiveFunctionValue(c.getSolutionRepresentation());
+        c.setObjectiveFunctionValue(newValue);
 
         return newValue;
     }
@@ -90,4 +109,4 @@ public class OnePointX extends HeuristicOperators implements HeuristicInterface
     public boolean usesIntensityOfMutation() {
         return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.CandidateGraph;
+import com.aim.project.ssp.interfaces.LocalSearchInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.solution.ActiveNodeQueue;
+
+/**
+ * Or-opt local search: moves a segment of 1 to 3 consecutive locations, possibly reversed, next to one
+ * of the candidate neighbours of its first or last location.
+ *
+ * For each queued location, the segments that start or end at it are considered. A segment is only moved
+ * next to a candidate neighbour that is cheaper to reach than what removing the segment saves (the gain
+ * criterion); each move is evaluated in O(1) and the best one is applied in place by shifting the
+ * locations in between. depthOfSearch sets the effort as for TwoOpt.
+ */
+public class OrOpt extends HeuristicOperators implements LocalSearchInterface {
+
+	static final int MAX_SEGMENT_LENGTH = 3;
+
+	private int[] positions;
+
+	// whether the last call ran until every don't-look bit was set
+	private boolean localOptimumConfirmed;
+
+	private final int[] segment = new int[MAX_SEGMENT_LENGTH];
+
+	// best move found for the current location
+	private int bestDelta, bestStart, bestLength, bestGap;
+
+	private boolean bestReversed;
+
+	public OrOpt(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if(n < 2) {
+			localOptimumConfirmed = true;
+			return cost;
+		}
+
+		CandidateGraph candidates = getCandidateGraph();
+		positions = positionsOf(tour, positions);
+
+		// the don't-look bits persist on the solution, so only locations disturbed since the last call are active
+		ActiveNodeQueue queue = getActiveNodeQueue(solution, ActiveNodeQueue.OR_OPT);
+
+		long budget = (long) calculateNumberOfIterations(depthOfSearch) * n;
+		for(long examined = 0; examined < budget && !queue.isEmpty(); examined++) {
+			int a = queue.poll();
+			int p = positions[a];
+
+			bestDelta = 0;
+			for(int length = 1; length <= MAX_SEGMENT_LENGTH && length <= n; length++) {
+				// the segment starting at a, and (for longer segments) the one ending at a
+				evaluateSegment(tour, p, length, candidates);
+				if(length > 1) {
+					evaluateSegment(tour, p - length + 1, length, candidates);
+				}
+			}
+
+			if(bestDelta < 0) {
+				int prev = nodeAt(tour, bestStart - 1), next = nodeAt(tour, bestStart + bestLength);
+				int gapLeft = nodeAt(tour, bestGap), gapRight = nodeAt(tour, bestGap + 1);
+				moveSegment(tour, bestStart, bestLength, bestGap, bestReversed);
+				cost += bestDelta;
+
+				solution.activateNode(prev);
+				solution.activateNode(next);
+				solution.activateNode(gapLeft);
+				solution.activateNode(gapRight);
+				solution.activateNode(segment[0]);
+				solution.activateNode(segment[bestLength - 1]);
+			}
+		}
+
+		localOptimumConfirmed = queue.isEmpty();
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	@Override
+	public boolean isLocalOptimumConfirmed() {
+
+		return localOptimumConfirmed;
+	}
+
+	/**
+	 * Evaluates moving the segment at positions <code>start .. start + length - 1</code> next to the
+	 * candidate neighbours of its ends, recording the best move found so far.
+	 */
+	private void evaluateSegment(int[] tour, int start, int length, CandidateGraph candidates) {
+
+		int end = start + length - 1;
+		if(start < 0 || end >= tour.length) {
+			return;
+		}
+
+		int first = tour[start], last = tour[end];
+		int prev = nodeAt(tour, start - 1), next = nodeAt(tour, end + 1);
+		int removalGain = getCost(prev, first) + getCost(last, next) - getCost(prev, next);
+		if(removalGain <= 0) {
+			return;
+		}
+		int reversalChange = internalReversalChange(tour, start, end);
+
+		int[] offsets = candidates.getOffsets();
+		int[] neighbours = candidates.getNeighbours();
+		for(int e = 0; e < (length == 1 ? 1 : 2); e++) {
+			int endpoint = e == 0 ? first : last;
+			for(int k = offsets[endpoint]; k < offsets[endpoint + 1]; k++) {
+				int c = neighbours[k];
+				if(getCost(endpoint, c) >= removalGain) {
+					break; // candidates are sorted by cost
+				}
+				int q = positions[c];
+				if(q >= start && q <= end) {
+					continue;
+				}
+
+				// between c and its successor, with endpoint next to c
+				evaluateInsertion(tour, start, length, removalGain, reversalChange, q, endpoint == last);
+				// between c's predecessor and c, with endpoint next to c
+				evaluateInsertion(tour, start, length, removalGain, reversalChange, q - 1, endpoint == first);
+			}
+		}
+	}
+
+	/**
+	 * Evaluates inserting the segment into the gap between positions <code>gap</code> and <code>gap + 1</code>.
+	 */
+	private void evaluateInsertion(int[] tour, int start, int length, int removalGain, int reversalChange,
+								   int gap, boolean reversed) {
+
+		int end = start + length - 1;
+		if(gap >= start - 1 && gap <= end) {
+			return; // the gap touches the segment
+		}
+
+		int u = nodeAt(tour, gap), v = nodeAt(tour, gap + 1);
+		int head = reversed ? tour[end] : tour[start];
+		int tail = reversed ? tour[start] : tour[end];
+		int delta = getCost(u, head) + getCost(tail, v) - getCost(u, v) - removalGain
+				+ (reversed ? reversalChange : 0);
+
+		if(delta < bestDelta) {
+			bestDelta = delta;
+			bestStart = start;
+			bestLength = length;
+			bestGap = gap;
+			bestReversed = reversed;
+		}
+	}
+
+	/**
+	 * @return The change in the cost of the segment's own edges when it is reversed (0 for symmetric costs).
+	 */
+	private int internalReversalChange(int[] tour, int start, int end) {
+
+		if(m_oObjectiveFunction.isSymmetric()) {
+			return 0;
+		}
+
+		int change = 0;
+		for(int k = start; k < end; k++) {
+			change += m_oObjectiveFunction.getCost(tour[k + 1], tour[k]) - m_oObjectiveFunction.getCost(tour[k], tour[k + 1]);
+		}
+		return change;
+	}
+
+	/**
+	 * Moves the segment into the gap after position <code>gap</code>, shifting the locations in between.
+	 */
+	private void moveSegment(int[] tour, int start, int length, int gap, boolean reversed) {
+
+		for(int k = 0; k < length; k++) {
+			segment[k] = tour[reversed ? start + length - 1 - k : start + k];
+		}
+
+		int target;
+		if(gap < start) {
+			for(int k = start - 1; k > gap; k--) {
+				tour[k + length] = tour[k];
+				positions[tour[k]] = k + length;
+			}
+			target = gap + 1;
+		} else {
+			for(int k = start + length; k <= gap; k++) {
+				tour[k - length] = tour[k];
+				positions[tour[k]] = k - length;
+			}
+			target = gap - length + 1;
+		}
+
+		for(int k = 0; k < length; k++) {
+			tour[target + k] = segment[k];
+			positions[segment[k]] = target + k;
+		}
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+}
@@ -0,0 +1,243 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.interfaces.XOHeuristicInterface;
+
+/**
+ * Generalised partition crossover (GPX) for paths with fixed ends.
+ *
+ * The edges the parents do not share are joined into components with union-find. A component that each
+ * parent enters exactly once is visited as one sub-path by both parents, between the same two portals, so
+ * either parent's sub-path can be used in the child independently of the other components. The child is the
+ * cheaper parent with every such sub-path replaced by the other parent's when that is cheaper; all other
+ * edges, including every shared edge, are kept. Everything runs in O(n) on primitive arrays owned by the
+ * operator.
+ *
+ * Applied to a single solution there is nothing to recombine, and the solution is left unchanged.
+ */
+public class PartitionCrossover extends HeuristicOperators implements XOHeuristicInterface {
+
+	// number of locations of the parents being recombined; the HOTEL is n and the AIRPORT n + 1
+	private int n;
+
+	// both tours extended with the HOTEL at the front and the AIRPORT at the back, and their inverses
+	private int[] base, other, basePositions, otherPositions;
+
+	// union-find forest over the extended IDs; -1 for locations whose edges are all shared
+	private int[] parent;
+
+	// per component root: entries by each parent, first position in each, and sub-path costs
+	private int[] baseEntries, otherEntries, baseStart, otherStart, baseCost, otherForwardCost, otherReverseCost;
+
+	public PartitionCrossover(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		return solution.getObjectiveFunctionValue();
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface p1, SSPSolutionInterface p2, SSPSolutionInterface c,
+						double depthOfSearch, double intensityOfMutation) {
+
+		// the cheaper parent is the base of the child
+		SSPSolutionInterface baseParent = p2.getObjectiveFunctionValue() < p1.getObjectiveFunctionValue() ? p2 : p1;
+		SSPSolutionInterface otherParent = baseParent == p1 ? p2 : p1;
+		int[] baseTour = baseParent.getSolutionRepresentation().getSolutionRepresentation();
+		int[] otherTour = otherParent.getSolutionRepresentation().getSolutionRepresentation();
+
+		// Write the child into the tour of c, which must not be either parent
+		int[] child = c.getSolutionRepresentation().getSolutionRepresentation();
+		System.arraycopy(baseTour, 0, child, 0, baseTour.length);
+		int cost = baseParent.getObjectiveFunctionValue();
+
+		n = baseTour.length;
+		int size = n + 2;
+		allocate(size);
+		extend(baseTour, base, basePositions);
+		extend(otherTour, other, otherPositions);
+
+		// join the endpoints of the edges the parents do not share
+		for(int i = 0; i < size - 1; i++) {
+			if(!isShared(base[i], base[i + 1])) {
+				union(base[i], base[i + 1]);
+			}
+			if(!isShared(other[i], other[i + 1])) {
+				union(other[i], other[i + 1]);
+			}
+		}
+
+		countEntries(base, baseEntries, baseStart);
+		countEntries(other, otherEntries, otherStart);
+
+		// sub-path costs of each component, in both directions for the other parent
+		for(int i = 0; i < size - 1; i++) {
+			int root = find(base[i]);
+			if(root >= 0 && root == find(base[i + 1])) {
+				baseCost[root] += cost(base[i], base[i + 1]);
+			}
+			root = find(other[i]);
+			if(root >= 0 && root == find(other[i + 1])) {
+				otherForwardCost[root] += cost(other[i], other[i + 1]);
+				otherReverseCost[root] += cost(other[i + 1], other[i]);
+			}
+		}
+
+		// replace the base's sub-path of each component both parents enter once when the other's is cheaper
+		for(int i = 0; i < size; i++) {
+			int root = find(base[i]);
+			if(root < 0 || baseStart[root] != i || baseEntries[root] != 1 || otherEntries[root] != 1) {
+				continue;
+			}
+
+			// both sub-paths run between the same portals, so the other's is used in whichever direction
+			// starts where the base's does
+			int from = otherStart[root];
+			boolean forward = other[from] == base[i];
+			int otherCost = forward ? otherForwardCost[root] : otherReverseCost[root];
+			if(otherCost >= baseCost[root]) {
+				continue;
+			}
+
+			int length = 1;
+			while(i + length < size && find(base[i + length]) == root) {
+				length++;
+			}
+			for(int k = 0; k < length; k++) {
+				int location = forward ? other[from + k] : other[from + length - 1 - k];
+				if(location < n) {
+					child[i + k - 1] = location;
+				}
+			}
+			cost += otherCost - baseCost[root];
+		}
+
+		// Update child solution; the tour is new, so every location is active for the next local search
+		c.resetActiveNodes();
+		c.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	private void allocate(int size) {
+
+		if(base == null || base.length < size) {
+			base = new int[size];
+			other = new int[size];
+			basePositions = new int[size];
+			otherPositions = new int[size];
+			parent = new int[size];
+			baseEntries = new int[size];
+			otherEntries = new int[size];
+			baseStart = new int[size];
+			otherStart = new int[size];
+			baseCost = new int[size];
+			otherForwardCost = new int[size];
+			otherReverseCost = new int[size];
+		}
+		for(int i = 0; i < size; i++) {
+			parent[i] = -1;
+			baseEntries[i] = 0;
+			otherEntries[i] = 0;
+			baseCost[i] = 0;
+			otherForwardCost[i] = 0;
+			otherReverseCost[i] = 0;
+		}
+	}
+
+	private void extend(int[] tour, int[] extended, int[] positions) {
+
+		extended[0] = n;
+		System.arraycopy(tour, 0, extended, 1, n);
+		extended[n + 1] = n + 1;
+		for(int i = 0; i < n + 2; i++) {
+			positions[extended[i]] = i;
+		}
+	}
+
+	private boolean isShared(int u, int v) {
+
+		return Math.abs(basePositions[u] - basePositions[v]) == 1 && Math.abs(otherPositions[u] - otherPositions[v]) == 1;
+	}
+
+	/**
+	 * Counts, per component, how often the extended tour enters it and where it first does.
+	 */
+	private void countEntries(int[] extended, int[] entries, int[] start) {
+
+		int previous = -1;
+		for(int i = 0; i < n + 2; i++) {
+			int root = find(extended[i]);
+			if(root >= 0 && root != previous && entries[root]++ == 0) {
+				start[root] = i;
+			}
+			previous = root;
+		}
+	}
+
+	private int find(int location) {
+
+		if(parent[location] < 0) {
+			return -1;
+		}
+		int root = location;
+		while(parent[root] != root) {
+			root = parent[root];
+		}
+		while(parent[location] != root) {
+			int next = parent[location];
+			parent[location] = root;
+			location = next;
+		}
+		return root;
+	}
+
+	private void union(int u, int v) {
+
+		if(parent[u] < 0) {
+			parent[u] = u;
+		}
+		if(parent[v] < 0) {
+			parent[v] = v;
+		}
+		int ru = find(u), rv = find(v);
+		if(ru != rv) {
+			parent[ru] = rv;
+		}
+	}
+
+	/**
+	 * @return The cost of travelling between two extended IDs; 0 from the AIRPORT or to the HOTEL, which only
+	 * occurs in reversed sub-paths that are never used, since those containing an end are never reversed.
+	 */
+	private int cost(int u, int v) {
+
+		if(u == n + 1 || v == n) {
+			return 0;
+		}
+		return getCost(u == n ? HOTEL : u, v == n + 1 ? AIRPORT : v);
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return false;
+	}
+}
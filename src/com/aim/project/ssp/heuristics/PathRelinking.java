@@ -0,0 +1,124 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.interfaces.XOHeuristicInterface;
+
+/**
+ * Path relinking from parent1 towards parent2.
+ *
+ * Starting from a random position, the positions are visited cyclically; at each one that differs from
+ * parent2, the location parent2 has there is swapped into it, found in O(1) through the inverse of the tour,
+ * and the swap is evaluated in O(1). The walk stops after depthOfSearch times the number of differing
+ * positions swaps (at least one), and never reaches parent2 itself; the child is the best tour on the walk,
+ * which may cost more than parent1, restored by undoing the swaps made after it.
+ *
+ * Applied to a single solution there is no tour to walk towards, and the solution is left unchanged.
+ */
+public class PathRelinking extends HeuristicOperators implements XOHeuristicInterface {
+
+	private int[] positions;
+
+	// positions swapped at each step of the walk, so that the steps after the best tour can be undone
+	private int[] swapLefts, swapRights;
+
+	public PathRelinking(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		return solution.getObjectiveFunctionValue();
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface p1, SSPSolutionInterface p2, SSPSolutionInterface c,
+						double depthOfSearch, double intensityOfMutation) {
+
+		int[] guide = p2.getSolutionRepresentation().getSolutionRepresentation();
+		int n = guide.length;
+
+		// Walk on the tour of c, which must not be either parent
+		int[] tour = c.getSolutionRepresentation().getSolutionRepresentation();
+		System.arraycopy(p1.getSolutionRepresentation().getSolutionRepresentation(), 0, tour, 0, n);
+		c.resetActiveNodes();
+		int cost = p1.getObjectiveFunctionValue();
+
+		positions = positionsOf(tour, positions);
+		if(swapLefts == null || swapLefts.length < n) {
+			swapLefts = new int[n];
+			swapRights = new int[n];
+		}
+
+		int differences = 0;
+		for(int i = 0; i < n; i++) {
+			if(tour[i] != guide[i]) {
+				differences++;
+			}
+		}
+		int maxSteps = Math.max(1, (int) Math.ceil(depthOfSearch * differences));
+
+		int steps = 0, bestSteps = 0, bestCost = Integer.MAX_VALUE;
+		int start = n == 0 ? 0 : m_oRandom.nextInt(n);
+		for(int k = 0; k < n && steps < maxSteps; k++) {
+			int i = start + k < n ? start + k : start + k - n;
+			if(tour[i] == guide[i]) {
+				continue;
+			}
+
+			// the swap fixes position i, and position j too if it receives its location from parent2
+			int j = positions[guide[i]];
+			int a = tour[i], b = tour[j];
+			differences -= a == guide[j] ? 2 : 1;
+			if(differences == 0) {
+				break;
+			}
+
+			cost += swapDelta(tour, i, j);
+			tour[i] = b;
+			positions[b] = i;
+			tour[j] = a;
+			positions[a] = j;
+			swapLefts[steps] = i;
+			swapRights[steps] = j;
+			steps++;
+
+			if(cost < bestCost) {
+				bestCost = cost;
+				bestSteps = steps;
+			}
+		}
+
+		// undo the steps after the best tour on the walk
+		for(int s = steps - 1; s >= bestSteps; s--) {
+			swap(tour, swapLefts[s], swapRights[s]);
+		}
+		if(bestSteps == 0) {
+			bestCost = p1.getObjectiveFunctionValue();
+		}
+
+		c.setObjectiveFunctionValue(bestCost);
+		return bestCost;
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+}
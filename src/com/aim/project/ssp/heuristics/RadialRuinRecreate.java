@@ -0,0 +1,32 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.Location;
+
+/**
+ * Radial ruin-and-recreate: removes the locations nearest to a random location, found with the spatial
+ * index, and reinserts them from the outside in so that each one is reinserted next to locations that are
+ * already in the tour.
+ */
+public class RadialRuinRecreate extends RuinAndRecreate {
+
+	private final int[] nearest = new int[MAX_RUIN_SIZE];
+
+	public RadialRuinRecreate(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	protected void ruin(int[] tour, int ruinSize) {
+
+		int seed = tour[m_oRandom.nextInt(tour.length)];
+		Location centre = m_oObjectiveFunction.getInstance().getSightseeingLocation(seed);
+		int found = getSpatialIndex().kNearest(centre.x(), centre.y(), ruinSize, nearest);
+
+		for(int i = found - 1; i >= 0; i--) {
+			remove(nearest[i]);
+		}
+	}
+}
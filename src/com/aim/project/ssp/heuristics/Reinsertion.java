@@ -42,6 +42,9 @@ public class Reinsertion extends HeuristicOperators implements HeuristicInterfac
 				insertPos = m_oRandom.nextInt(length);
 			} while (insertPos == removePos);
 
+			// The neighbours of the removed element get a new edge between them
+			activatePositions(solution, tour, removePos - 1, removePos + 1);
+
 			// Perform reinsertion
 			if(removePos < insertPos) {
 				// Shift elements left
@@ -52,6 +55,9 @@ public class Reinsertion extends HeuristicOperators implements HeuristicInterfac
 				System.arraycopy(tour, insertPos, tour, insertPos + 1, removePos - insertPos);
 			}
 			tour[insertPos] = element;
+
+			// So do the element and its new neighbours
+			activatePositions(solution, tour, insertPos - 1, insertPos + 1);
 		}
 
 		// Update solution
@@ -0,0 +1,204 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.CandidateGraph;
+import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+/**
+ * Common part of the ruin-and-recreate heuristics: a subclass chooses the locations to remove, and they are
+ * reinserted one by one, in the order the subclass removed them, at the cheapest of a few insertion points.
+ *
+ * The insertion points of a location are the gaps on either side of its candidate neighbours that are in the
+ * tour, plus the gap it was removed from. While the heuristic runs, the tour is kept as a doubly linked list
+ * so that each insertion point is evaluated and each insertion is applied in O(1); the cost is updated from
+ * the same deltas. intensityOfMutation sets how many locations are removed (1 to MAX_RUIN_SIZE).
+ */
+public abstract class RuinAndRecreate extends HeuristicOperators implements HeuristicInterface {
+
+	/**
+	 * The most locations removed by one call, reached at intensityOfMutation = 1 on instances with at least
+	 * twice as many locations.
+	 */
+	protected static final int MAX_RUIN_SIZE = 100;
+
+	// the tour while the heuristic runs, as a doubly linked list over location IDs ended by HOTEL and AIRPORT
+	private int[] next, prev;
+
+	private int first;
+
+	// for each removed location, the location that was before it in the tour and was not removed (or HOTEL)
+	private int[] anchors;
+
+	protected boolean[] removed;
+
+	// the removed locations, in the order they are reinserted
+	protected int[] removedLocations;
+
+	protected int numberRemoved;
+
+	public RuinAndRecreate(Random random) {
+
+		super(random);
+	}
+
+	/**
+	 * Chooses up to <code>ruinSize</code> locations of the tour and removes each with <code>remove</code>.
+	 */
+	protected abstract void ruin(int[] tour, int ruinSize);
+
+	protected void remove(int location) {
+
+		removed[location] = true;
+		removedLocations[numberRemoved++] = location;
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if(n < 3) {
+			return cost;
+		}
+
+		if(removed == null || removed.length < n) {
+			next = new int[n];
+			prev = new int[n];
+			anchors = new int[n];
+			removed = new boolean[n];
+			removedLocations = new int[n];
+		}
+
+		int ruinSize = Math.max(1, (int) Math.round(intensityOfMutation * Math.min(MAX_RUIN_SIZE, n / 2)));
+		numberRemoved = 0;
+		ruin(tour, ruinSize);
+
+		// link the remaining locations, replacing the edges around each removed run by one edge
+		int last = HOTEL;
+		for(int i = 0; i < n; i++) {
+			int location = tour[i];
+			if(removed[location]) {
+				anchors[location] = last;
+				cost -= getCost(nodeAt(tour, i - 1), location);
+			} else {
+				if(i > 0 && removed[tour[i - 1]]) {
+					cost += getCost(last, location) - getCost(tour[i - 1], location);
+					solution.activateNode(last);
+					solution.activateNode(location);
+				}
+				link(last, location);
+				last = location;
+			}
+		}
+		if(removed[tour[n - 1]]) {
+			cost += getCost(last, AIRPORT) - getCost(tour[n - 1], AIRPORT);
+			solution.activateNode(last);
+		}
+		link(last, AIRPORT);
+
+		cost += recreate(solution);
+
+		int i = 0;
+		for(int location = first; location != AIRPORT; location = next[location]) {
+			tour[i++] = location;
+		}
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	/**
+	 * Reinserts the removed locations at their cheapest insertion points.
+	 *
+	 * @return The change in tour cost.
+	 */
+	private int recreate(SSPSolutionInterface solution) {
+
+		CandidateGraph candidates = getCandidateGraph();
+		int[] offsets = candidates.getOffsets();
+		int[] neighbours = candidates.getNeighbours();
+
+		int change = 0;
+		for(int r = 0; r < numberRemoved; r++) {
+			int location = removedLocations[r];
+
+			// insertion points are identified by the location before them
+			int bestGap = anchors[location];
+			int bestDelta = insertionDelta(bestGap, location);
+			for(int k = offsets[location]; k < offsets[location + 1]; k++) {
+				int c = neighbours[k];
+				if(removed[c]) {
+					continue;
+				}
+				int delta = insertionDelta(prev[c], location);
+				if(delta < bestDelta) {
+					bestDelta = delta;
+					bestGap = prev[c];
+				}
+				delta = insertionDelta(c, location);
+				if(delta < bestDelta) {
+					bestDelta = delta;
+					bestGap = c;
+				}
+			}
+
+			int after = successor(bestGap);
+			link(bestGap, location);
+			link(location, after);
+			removed[location] = false;
+			change += bestDelta;
+
+			solution.activateNode(bestGap);
+			solution.activateNode(location);
+			solution.activateNode(after);
+		}
+		return change;
+	}
+
+	/**
+	 * @return The change in tour cost from inserting <code>location</code> after <code>gap</code>, in O(1).
+	 */
+	private int insertionDelta(int gap, int location) {
+
+		int after = successor(gap);
+		return getCost(gap, location) + getCost(location, after) - getCost(gap, after);
+	}
+
+	private int successor(int location) {
+
+		return location == HOTEL ? first : next[location];
+	}
+
+	private void link(int from, int to) {
+
+		if(from == HOTEL) {
+			first = to;
+		} else {
+			next[from] = to;
+		}
+		if(to != AIRPORT) {
+			prev[to] = from;
+		}
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return false;
+	}
+}
@@ -0,0 +1,198 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+/**
+ * Local search that reorders windows of k consecutive locations optimally with bitmask dynamic programming
+ * (Held-Karp on the path between the locations just outside the window), in O(k^2 2^k) per window.
+ *
+ * Windows are separated by one fixed location, so that the windows of a pass are independent; a second pass
+ * shifts them by half a window so that the boundaries of the first are covered. After a call that changes
+ * nothing, every window of both passes is in its optimal order. On tours of at least the parallel threshold
+ * the windows of a pass are optimised in parallel, each thread reusing its own DP tables; the result does
+ * not depend on the number of threads.
+ *
+ * depthOfSearch sets the window size k (6 to MAX_WINDOW_SIZE).
+ */
+public class SlidingWindowDP extends HeuristicOperators implements HeuristicInterface {
+
+	private static final int MAX_WINDOW_SIZE = 10;
+
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 20_000;
+
+	// DP tables per thread, shared by all instances; they hold no reference to a heuristic or an instance
+	private static final ThreadLocal<WindowSolver> SOLVERS = ThreadLocal.withInitial(WindowSolver::new);
+
+	// change in cost of each window of the current pass
+	private int[] windowDeltas = new int[0];
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	public SlidingWindowDP(Random random) {
+
+		super(random);
+	}
+
+	/**
+	 * Sets the number of locations from which the windows of a pass are optimised in parallel.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+
+		int k = Math.min(n, 5 + calculateNumberOfIterations(depthOfSearch));
+		if(k < 3) {
+			return cost;
+		}
+
+		for(int offset : new int[]{ 0, (k + 1) / 2 }) {
+			int windows = (n - offset + 1) / (k + 1);
+			if(windowDeltas.length < windows) {
+				windowDeltas = new int[windows];
+			}
+
+			if(n >= parallelThreshold) {
+				IntStream.range(0, windows).parallel().forEach(
+						w -> windowDeltas[w] = SOLVERS.get().optimise(this, tour, offset + w * (k + 1), k));
+			} else {
+				WindowSolver solver = SOLVERS.get();
+				for(int w = 0; w < windows; w++) {
+					windowDeltas[w] = solver.optimise(this, tour, offset + w * (k + 1), k);
+				}
+			}
+
+			// the don't-look bits are not thread-safe, so each improved window and the locations either side of it
+			// are activated here, after the parallel part
+			for(int w = 0; w < windows; w++) {
+				if(windowDeltas[w] < 0) {
+					int start = offset + w * (k + 1);
+					cost += windowDeltas[w];
+					activatePositions(solution, tour, start - 1, start + k);
+				}
+			}
+		}
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	/**
+	 * DP tables for one thread, allocated once for the largest window.
+	 */
+	private static final class WindowSolver {
+
+		private final int[] locations = new int[MAX_WINDOW_SIZE];
+
+		// costs between the window's locations, from the location before it and to the location after it
+		private final int[] costs = new int[MAX_WINDOW_SIZE * MAX_WINDOW_SIZE];
+
+		private final int[] fromBefore = new int[MAX_WINDOW_SIZE];
+
+		private final int[] toAfter = new int[MAX_WINDOW_SIZE];
+
+		// best[mask * k + j]: cheapest path from the location before the window through the locations in mask, ending at j
+		private final int[] best = new int[(1 << MAX_WINDOW_SIZE) * MAX_WINDOW_SIZE];
+
+		private final byte[] previous = new byte[(1 << MAX_WINDOW_SIZE) * MAX_WINDOW_SIZE];
+
+		/**
+		 * Reorders positions <code>start .. start + k - 1</code> of the tour optimally, with the costs of
+		 * <code>operators</code>.
+		 *
+		 * @return The (non-positive) change in tour cost.
+		 */
+		int optimise(HeuristicOperators operators, int[] tour, int start, int k) {
+
+			int before = nodeAt(tour, start - 1), after = nodeAt(tour, start + k);
+			for(int j = 0; j < k; j++) {
+				locations[j] = tour[start + j];
+				fromBefore[j] = operators.getCost(before, locations[j]);
+				toAfter[j] = operators.getCost(locations[j], after);
+				for(int t = 0; t < j; t++) {
+					costs[t * k + j] = operators.getCost(locations[t], locations[j]);
+					costs[j * k + t] = operators.getCost(locations[j], locations[t]);
+				}
+			}
+
+			int current = fromBefore[0] + toAfter[k - 1];
+			for(int j = 1; j < k; j++) {
+				current += costs[(j - 1) * k + j];
+			}
+
+			int full = (1 << k) - 1;
+			Arrays.fill(best, 0, (full + 1) * k, Integer.MAX_VALUE);
+			for(int j = 0; j < k; j++) {
+				best[(1 << j) * k + j] = fromBefore[j];
+			}
+			for(int mask = 1; mask < full; mask++) {
+				// extend each path ending in the mask by each location outside it
+				for(int ends = mask; ends != 0; ends &= ends - 1) {
+					int j = Integer.numberOfTrailingZeros(ends);
+					int value = best[mask * k + j];
+					for(int free = full & ~mask; free != 0; free &= free - 1) {
+						int t = Integer.numberOfTrailingZeros(free);
+						int index = (mask | (1 << t)) * k + t;
+						int candidate = value + costs[j * k + t];
+						if(candidate < best[index]) {
+							best[index] = candidate;
+							previous[index] = (byte) j;
+						}
+					}
+				}
+			}
+
+			int bestLast = -1, bestCost = current;
+			for(int j = 0; j < k; j++) {
+				int candidate = best[full * k + j] + toAfter[j];
+				if(candidate < bestCost) {
+					bestCost = candidate;
+					bestLast = j;
+				}
+			}
+			if(bestLast < 0) {
+				return 0;
+			}
+
+			// write the optimal order back to front
+			int mask = full, j = bestLast;
+			for(int p = start + k - 1; p >= start; p--) {
+				tour[p] = locations[j];
+				int prior = previous[mask * k + j];
+				mask &= ~(1 << j);
+				j = prior;
+			}
+			return bestCost - current;
+		}
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
+}
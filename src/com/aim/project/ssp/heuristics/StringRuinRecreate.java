@@ -0,0 +1,61 @@
+package com.aim.project.ssp.heuristics;
+
+import java.util.Random;
+
+import com.aim.project.ssp.instance.CandidateGraph;
+
+/**
+ * String ruin-and-recreate: removes strings of up to MAX_STRING_LENGTH consecutive locations, the first
+ * through a random location and the others through candidate neighbours of locations already removed, so
+ * that strings from different parts of the tour that pass close to each other are removed together. The
+ * removed locations are reinserted in random order.
+ */
+public class StringRuinRecreate extends RuinAndRecreate {
+
+	private static final int MAX_STRING_LENGTH = 10;
+
+	private int[] positions;
+
+	public StringRuinRecreate(Random random) {
+
+		super(random);
+	}
+
+	@Override
+	protected void ruin(int[] tour, int ruinSize) {
+
+		positions = positionsOf(tour, positions);
+		CandidateGraph candidates = getCandidateGraph();
+		int[] offsets = candidates.getOffsets();
+		int[] neighbours = candidates.getNeighbours();
+
+		removeString(tour, m_oRandom.nextInt(tour.length), ruinSize);
+		for(int r = 0; r < numberRemoved && numberRemoved < ruinSize; r++) {
+			int location = removedLocations[r];
+			for(int k = offsets[location]; k < offsets[location + 1] && numberRemoved < ruinSize; k++) {
+				int c = neighbours[k];
+				if(!removed[c]) {
+					removeString(tour, positions[c], ruinSize);
+				}
+			}
+		}
+
+		for(int i = numberRemoved - 1; i > 0; i--) {
+			swap(removedLocations, i, m_oRandom.nextInt(i + 1));
+		}
+	}
+
+	/**
+	 * Removes a string of random length through position <code>p</code>, skipping locations already removed.
+	 */
+	private void removeString(int[] tour, int p, int ruinSize) {
+
+		int length = 1 + m_oRandom.nextInt(Math.min(MAX_STRING_LENGTH, ruinSize - numberRemoved));
+		int start = Math.max(0, Math.min(p - m_oRandom.nextInt(length), tour.length - length));
+		for(int q = start; q < start + length; q++) {
+			if(!removed[tour[q]]) {
+				remove(tour[q]);
+			}
+		}
+	}
+}
@@ -1,88 +1,283 @@
 package com.aim.project.ssp.heuristics;
 
+import java.util.Arrays;
 import java.util.Random;
+import java.util.stream.IntStream;
 
-import com.aim.project.ssp.interfaces.HeuristicInterface;
+import com.aim.project.ssp.instance.CandidateGraph;
+import com.aim.project.ssp.interfaces.LocalSearchInterface;
 import com.aim.project.ssp.interfaces.SSPSolutionInterface;
-import com.aim.project.ssp.interfaces.SolutionRepresentationInterface;
+import com.aim.project.ssp.solution.ActiveNodeQueue;
 
 /**
- * Local search that tries all i<j 2-opt reversals, takes the first improving one.
+ * 2-opt local search restricted to the candidate-edge graph, with don't-look bits.
+ *
+ * A move removes the edges (a, succ(a)) and (c, succ(c)), or (pred(a), a) and (pred(c), c), and reconnects
+ * the path by reversing the part in between; the HOTEL and AIRPORT stay fixed at the ends. For each location
+ * a, only candidates c that are cheaper to reach from a than a's current neighbour are tried (the gain
+ * criterion), each move is evaluated in O(1) and the best one for a is applied in place. Locations whose
+ * neighbourhood has not changed since it last failed to improve are not looked at again.
+ *
+ * On tours of at least the parallel threshold (off by default, see setParallelThreshold), the active locations
+ * are taken in batches and their best moves are found in parallel on the common fork/join pool. The moves are
+ * then applied best first (lowest delta, ties to the earliest location in the batch), each re-evaluated against
+ * the tour left by the ones before it, so that the result does not depend on the number of threads. Because the
+ * moves of a batch are found on the tour as it was before the batch, this mode typically ends about 1% above
+ * the sequential one.
+ *
+ * depthOfSearch sets the effort: up to calculateNumberOfIterations(depthOfSearch) * n locations are examined.
  */
-public class TwoOpt extends HeuristicOperators implements HeuristicInterface {
-
-    public TwoOpt(Random random) {
-        super(random);
-    }
-
-    @Override
-    public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
-        SolutionRepresentationInterface rep = solution.getSolutionRepresentation();
-        int[] original = rep.getSolutionRepresentation();
-        int n = original.length;
-        int baseCost = solution.getObjectiveFunctionValue();
-
-        // Determine search intensity based on depthOfSearch
-        int maxIterations = calculateMaxIterations(n, depthOfSearch);
-        int iterationsPerformed = 0;
-
-        // try every pair (i,j) until we find an improvement or reach maxIterations
-        for (int i = 0; i < n - 1 && iterationsPerformed < maxIterations; i++) {
-            for (int j = i + 1; j < n && iterationsPerformed < maxIterations; j++) {
-                iterationsPerformed++;
-
-                int[] candidate = original.clone();
-
-                // reverse [i..j]
-                int a = i, b = j;
-                while (a < b) {
-                    int tmp = candidate[a];
-                    candidate[a] = candidate[b];
-                    candidate[b] = tmp;
-                    a++; b--;
-                }
-
-                // evaluate
-                rep.setSolutionRepresentation(candidate);
-                int cost = m_oObjectiveFunction.getObjectiveFunctionValue(rep);
-                if (cost < baseCost) {
-                    solution.setObjectiveFunctionValue(cost);
-                    return cost;
-                }
-            }
-        }
-
-        // no improvement: restore and carry on
-        rep.setSolutionRepresentation(original);
-        return baseCost;
-    }
-
-    /**
-     * Calculates the maximum number of iterations based on problem size and depth of search
-     */
-    private int calculateMaxIterations(int problemSize, double depthOfSearch) {
-        // The maximum possible iterations is n*(n-1)/2 (all possible pairs)
-        int maxPossibleIterations = problemSize * (problemSize - 1) / 2;
-
-        // Scale by depthOfSearch (0.0-1.0)
-        int iterations = (int) Math.max(1, Math.min(maxPossibleIterations,
-                maxPossibleIterations * depthOfSearch));
-
-        return iterations;
-    }
-
-    @Override
-    public boolean isCrossover() {
-        return false;
-    }
-
-    @Override
-    public boolean usesDepthOfSearch() {
-        return true;
-    }
-
-    @Override
-    public boolean usesIntensityOfMutation() {
-        return false;
-    }
+public class TwoOpt extends HeuristicOperators implements LocalSearchInterface {
+
+	// the parallel mode gives slightly worse tours and no speed-up has been measured yet, so callers opt in
+	public static final int DEFAULT_PARALLEL_THRESHOLD = Integer.MAX_VALUE;
+
+	// the batch is searched in parallel in chunks of this many locations
+	private static final int TASK_SIZE = 1024;
+
+	// every move of a batch is found on the tour as it was before the batch, so batches are kept small
+	private static final int MAX_BATCH_SIZE = 16 * TASK_SIZE;
+
+	// inverse of the tour being improved: positions[location] = index in the tour
+	private int[] positions;
+
+	// whether the last call ran until every don't-look bit was set
+	private boolean localOptimumConfirmed;
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	// the locations of the current batch, and for each the best move found for it and its sort key
+	private int[] batch;
+
+	private long[] moves, order;
+
+	public TwoOpt(Random random) {
+
+		super(random);
+	}
+
+	/**
+	 * Sets the number of locations from which the best moves are searched for in parallel.
+	 */
+	public void setParallelThreshold(int parallelThreshold) {
+
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	@Override
+	public double apply(SSPSolutionInterface solution, double depthOfSearch, double intensityOfMutation) {
+
+		int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+		int n = tour.length;
+		int cost = solution.getObjectiveFunctionValue();
+		if(n < 2) {
+			localOptimumConfirmed = true;
+			return cost;
+		}
+
+		CandidateGraph candidates = getCandidateGraph();
+		positions = positionsOf(tour, positions);
+
+		// the don't-look bits persist on the solution, so only locations disturbed since the last call are active
+		ActiveNodeQueue queue = getActiveNodeQueue(solution, ActiveNodeQueue.TWO_OPT);
+
+		long budget = (long) calculateNumberOfIterations(depthOfSearch) * n;
+		if(n >= parallelThreshold) {
+			cost += applyInParallel(solution, tour, queue, budget, candidates);
+		} else {
+			for(long examined = 0; examined < budget && !queue.isEmpty(); examined++) {
+				int a = queue.poll();
+				long move = bestMove(tour, a, candidates);
+				if(move < 0) {
+					cost += applyMove(solution, tour, a, move);
+				}
+			}
+		}
+
+		localOptimumConfirmed = queue.isEmpty();
+
+		solution.setObjectiveFunctionValue(cost);
+		return cost;
+	}
+
+	/**
+	 * Examines the active locations in batches, finding their best moves in parallel and applying them in a
+	 * deterministic order.
+	 *
+	 * @return The change in tour cost.
+	 */
+	private int applyInParallel(SSPSolutionInterface solution, int[] tour, ActiveNodeQueue queue, long budget,
+								CandidateGraph candidates) {
+
+		if(batch == null) {
+			batch = new int[MAX_BATCH_SIZE];
+			moves = new long[MAX_BATCH_SIZE];
+			order = new long[MAX_BATCH_SIZE];
+		}
+
+		int change = 0;
+		for(long examined = 0; examined < budget && !queue.isEmpty(); ) {
+			int size = (int) Math.min(Math.min(queue.size(), MAX_BATCH_SIZE), budget - examined);
+			for(int i = 0; i < size; i++) {
+				batch[i] = queue.poll();
+			}
+			examined += size;
+
+			// the batch is split into fixed chunks, so the moves found do not depend on the number of threads
+			int batchSize = size;
+			IntStream.range(0, (size + TASK_SIZE - 1) / TASK_SIZE).parallel().forEach(chunk -> {
+				for(int i = chunk * TASK_SIZE; i < Math.min(batchSize, (chunk + 1) * TASK_SIZE); i++) {
+					moves[i] = bestMove(tour, batch[i], candidates);
+				}
+			});
+
+			int improving = 0;
+			for(int i = 0; i < size; i++) {
+				if(moves[i] < 0) {
+					order[improving++] = (moves[i] & 0xFFFFFFFF00000000L) | i;
+				}
+			}
+			Arrays.sort(order, 0, improving);
+
+			// moves applied before may have changed a move's edges, so each is evaluated again first; a location
+			// whose move no longer improves stays active so that a later batch looks at it again
+			for(int k = 0; k < improving; k++) {
+				int i = (int) order[k];
+				long move = reevaluate(tour, batch[i], moves[i]);
+				if(move < 0) {
+					change += applyMove(solution, tour, batch[i], move);
+				} else {
+					solution.activateNode(batch[i]);
+				}
+			}
+		}
+		return change;
+	}
+
+	/**
+	 * Finds the best improving move around location a without changing the tour.
+	 *
+	 * @return The move packed by pack, which is negative exactly when it improves the tour; or 0 if there is
+	 * no improving move.
+	 */
+	private long bestMove(int[] tour, int a, CandidateGraph candidates) {
+
+		int[] offsets = candidates.getOffsets();
+		int[] neighbours = candidates.getNeighbours();
+
+		int p = positions[a];
+		int succCost = getCost(a, nodeAt(tour, p + 1)), predCost = getCost(nodeAt(tour, p - 1), a);
+
+		int bestDelta = 0;
+		long bestMove = 0;
+		for(int k = offsets[a]; k < offsets[a + 1]; k++) {
+			int c = neighbours[k];
+			int q = positions[c];
+			int ac = getCost(a, c);
+			if(ac >= succCost && ac >= predCost) {
+				break; // candidates are sorted by cost, so no later one passes the gain criterion either
+			}
+
+			// new edges (a, c) and (succ(a), succ(c))
+			if(ac < succCost) {
+				int l = p < q ? p + 1 : q + 1, r = p < q ? q : p;
+				if(l < r) {
+					int delta = reversalDelta(tour, l, r);
+					if(delta < bestDelta) {
+						bestDelta = delta;
+						bestMove = pack(delta, c, true);
+					}
+				}
+			}
+
+			// new edges (a, c) and (pred(a), pred(c))
+			if(ac < predCost) {
+				int l = q < p ? q : p, r = q < p ? p - 1 : q - 1;
+				if(l < r) {
+					int delta = reversalDelta(tour, l, r);
+					if(delta < bestDelta) {
+						bestDelta = delta;
+						bestMove = pack(delta, c, false);
+					}
+				}
+			}
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Packs a move as its delta, the candidate c it connects a to, and whether it joins their successors.
+	 */
+	private static long pack(int delta, int c, boolean successors) {
+
+		return ((long) delta << 32) | ((long) c << 1) | (successors ? 1 : 0);
+	}
+
+	/**
+	 * @return The move from location a re-evaluated on the current tour, or 0 if it no longer improves it.
+	 */
+	private long reevaluate(int[] tour, int a, long move) {
+
+		int c = candidateOf(move);
+		boolean successors = (move & 1) != 0;
+		int p = positions[a], q = positions[c];
+		int l = successors ? Math.min(p, q) + 1 : Math.min(p, q);
+		int r = successors ? Math.max(p, q) : Math.max(p, q) - 1;
+		if(l >= r) {
+			return 0;
+		}
+		int delta = reversalDelta(tour, l, r);
+		return delta < 0 ? pack(delta, c, successors) : 0;
+	}
+
+	/**
+	 * Applies an improving move from location a, resetting the don't-look bits of the four endpoints of the
+	 * changed edges.
+	 *
+	 * @return The change in tour cost.
+	 */
+	private int applyMove(SSPSolutionInterface solution, int[] tour, int a, long move) {
+
+		boolean successors = (move & 1) != 0;
+		int p = positions[a], q = positions[candidateOf(move)];
+		int l = successors ? Math.min(p, q) + 1 : Math.min(p, q);
+		int r = successors ? Math.max(p, q) : Math.max(p, q) - 1;
+
+		int before = nodeAt(tour, l - 1), first = tour[l], last = tour[r], after = nodeAt(tour, r + 1);
+		reverse(tour, positions, l, r);
+		solution.activateNode(before);
+		solution.activateNode(first);
+		solution.activateNode(last);
+		solution.activateNode(after);
+		return (int) (move >> 32);
+	}
+
+	private static int candidateOf(long move) {
+
+		return (int) ((move & 0xFFFFFFFFL) >>> 1);
+	}
+
+	@Override
+	public boolean isLocalOptimumConfirmed() {
+
+		return localOptimumConfirmed;
+	}
+
+	@Override
+	public boolean isCrossover() {
+
+		return false;
+	}
+
+	@Override
+	public boolean usesDepthOfSearch() {
+
+		return true;
+	}
+
+	@Override
+	public boolean usesIntensityOfMutation() {
+
+		return false;
+	}
 }
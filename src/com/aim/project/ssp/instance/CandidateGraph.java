@@ -0,0 +1,177 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+
+/**
+ * Sparse graph of promising edges between sightseeing locations, used to restrict local search moves
+ * to candidate edges on large instances.
+ *
+ * Stored in compressed sparse row (CSR) layout so that operators can iterate it without boxing: the
+ * candidates of location <code>i</code> are <code>getNeighbours()[getOffsets()[i] .. getOffsets()[i + 1] - 1]</code>,
+ * sorted by increasing cost from <code>i</code>.
+ */
+public class CandidateGraph {
+
+	/**
+	 * Number of nearest neighbours taken from each quadrant around a location (Euclidean instances).
+	 */
+	public static final int QUADRANT_NEIGHBOURS = 5;
+
+	/**
+	 * Number of cheapest neighbours taken per location when costs do not follow from the coordinates.
+	 */
+	public static final int COST_NEIGHBOURS = 10;
+
+	private final int[] aiOffsets;
+
+	private final int[] aiNeighbours;
+
+	private CandidateGraph(int[] aiOffsets, int[] aiNeighbours) {
+
+		this.aiOffsets = aiOffsets;
+		this.aiNeighbours = aiNeighbours;
+	}
+
+	/**
+	 * Builds the quadrant neighbour graph: for each location, its nearest neighbours in each of the four
+	 * quadrants around it, plus its overall nearest neighbours (which also covers co-located locations).
+	 * Takes O(n log n) using the spatial index.
+	 */
+	public static CandidateGraph quadrantNeighbours(Location[] aoLocations, KDTree oIndex, ObjectiveFunctionInterface f) {
+
+		int n = aoLocations.length;
+		int q = QUADRANT_NEIGHBOURS;
+		int[] aiOffsets = new int[n + 1];
+		int[] aiNeighbours = new int[n * 5 * q];
+
+		int[] aiFound = new int[q + 1];
+		int[] aiCandidates = new int[5 * q];
+		long min = Long.MIN_VALUE, max = Long.MAX_VALUE;
+
+		for(int i = 0; i < n; i++) {
+			long x = aoLocations[i].x(), y = aoLocations[i].y();
+			int iCount = 0;
+
+			// overall nearest neighbours, excluding i itself
+			int iFound = oIndex.kNearest(x, y, q + 1, aiFound);
+			for(int k = 0; k < iFound && iCount < q; k++) {
+				if(aiFound[k] != i) {
+					aiCandidates[iCount++] = aiFound[k];
+				}
+			}
+
+			// nearest neighbours per quadrant; the boxes are disjoint and none contains i's own coordinates
+			iCount = addUnique(aiCandidates, iCount, aiFound, oIndex.kNearestInBox(x, y, x + 1, y, max, max, q, aiFound));
+			iCount = addUnique(aiCandidates, iCount, aiFound, oIndex.kNearestInBox(x, y, min, y + 1, x, max, q, aiFound));
+			iCount = addUnique(aiCandidates, iCount, aiFound, oIndex.kNearestInBox(x, y, min, min, x - 1, y, q, aiFound));
+			iCount = addUnique(aiCandidates, iCount, aiFound, oIndex.kNearestInBox(x, y, x, min, max, y - 1, q, aiFound));
+
+			sortByCost(i, aiCandidates, iCount, f);
+			System.arraycopy(aiCandidates, 0, aiNeighbours, aiOffsets[i], iCount);
+			aiOffsets[i + 1] = aiOffsets[i] + iCount;
+		}
+
+		return new CandidateGraph(aiOffsets, Arrays.copyOf(aiNeighbours, aiOffsets[n]));
+	}
+
+	/**
+	 * Builds the graph from the cheapest outgoing costs of each location, for instances whose costs do not
+	 * follow from the coordinates. Takes O(n^2) cost lookups.
+	 */
+	public static CandidateGraph cheapestNeighbours(int n, ObjectiveFunctionInterface f) {
+
+		int k = Math.min(COST_NEIGHBOURS, n - 1);
+		int[] aiOffsets = new int[n + 1];
+		int[] aiNeighbours = new int[n * Math.max(0, k)];
+
+		// packed (cost, id) keys of the k cheapest neighbours seen so far, kept sorted
+		long[] alBest = new long[Math.max(0, k)];
+		int[] aiCandidates = new int[Math.max(0, k)];
+
+		for(int i = 0; i < n; i++) {
+			int iCount = 0;
+			for(int j = 0; j < n; j++) {
+				if(j == i) {
+					continue;
+				}
+				long key = ((long) f.getCost(i, j) << 32) | j;
+				if(iCount < k || key < alBest[k - 1]) {
+					// insertion into the sorted array of the best k
+					int p = iCount < k ? iCount++ : k - 1;
+					while(p > 0 && alBest[p - 1] > key) {
+						alBest[p] = alBest[p - 1];
+						p--;
+					}
+					alBest[p] = key;
+				}
+			}
+
+			for(int c = 0; c < iCount; c++) {
+				aiCandidates[c] = (int) alBest[c];
+			}
+			System.arraycopy(aiCandidates, 0, aiNeighbours, aiOffsets[i], iCount);
+			aiOffsets[i + 1] = aiOffsets[i] + iCount;
+		}
+
+		return new CandidateGraph(aiOffsets, aiNeighbours);
+	}
+
+	private static int addUnique(int[] aiCandidates, int iCount, int[] aiFound, int iFound) {
+
+		for(int k = 0; k < iFound; k++) {
+			boolean bPresent = false;
+			for(int c = 0; c < iCount && !bPresent; c++) {
+				bPresent = aiCandidates[c] == aiFound[k];
+			}
+			if(!bPresent) {
+				aiCandidates[iCount++] = aiFound[k];
+			}
+		}
+		return iCount;
+	}
+
+	/**
+	 * Insertion sort of a short candidate list by cost from location <code>i</code>.
+	 */
+	private static void sortByCost(int i, int[] aiCandidates, int iCount, ObjectiveFunctionInterface f) {
+
+		for(int a = 1; a < iCount; a++) {
+			int candidate = aiCandidates[a];
+			int cost = f.getCost(i, candidate);
+			int b = a - 1;
+			while(b >= 0 && f.getCost(i, aiCandidates[b]) > cost) {
+				aiCandidates[b + 1] = aiCandidates[b];
+				b--;
+			}
+			aiCandidates[b + 1] = candidate;
+		}
+	}
+
+	/**
+	 * @return The CSR row offsets, of length n + 1.
+	 */
+	public int[] getOffsets() {
+
+		return aiOffsets;
+	}
+
+	/**
+	 * @return The CSR neighbour IDs of all locations, concatenated.
+	 */
+	public int[] getNeighbours() {
+
+		return aiNeighbours;
+	}
+
+	public int getNumberOfLocations() {
+
+		return aiOffsets.length - 1;
+	}
+
+	public int getNumberOfCandidates(int iLocation) {
+
+		return aiOffsets[iLocation + 1] - aiOffsets[iLocation];
+	}
+}
@@ -0,0 +1,319 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+
+/**
+ * Cluster-first, route-second construction of a tour from the HOTEL to the AIRPORT.
+ *
+ * The locations are grouped by k-means on their coordinates, the clusters are ordered by nearest
+ * neighbour over their centroids from the HOTEL (the cluster nearest the AIRPORT is kept for last), and a
+ * nearest neighbour path is built inside each cluster, independently and in parallel. Each path enters
+ * at the member nearest the previous cluster and leaves at the member nearest the next one; finally each
+ * path is reversed where that makes its connections cheaper.
+ */
+class ClusterFirstConstruction {
+
+	// k-means stops after this many iterations even if some assignments still change
+	private static final int MAX_ITERATIONS = 10;
+
+	private static final int HOTEL = -1;
+
+	private final Location[] aoLocations;
+
+	private final Location oHotelLocation;
+
+	private final Location oAirportLocation;
+
+	private final ObjectiveFunctionInterface f;
+
+	private final boolean bEuclideanCosts;
+
+	private final int n;
+
+	private final int AIRPORT;
+
+	ClusterFirstConstruction(Location[] aoLocations, Location oHotelLocation, Location oAirportLocation,
+							 ObjectiveFunctionInterface f, boolean bEuclideanCosts) {
+
+		this.aoLocations = aoLocations;
+		this.oHotelLocation = oHotelLocation;
+		this.oAirportLocation = oAirportLocation;
+		this.f = f;
+		this.bEuclideanCosts = bEuclideanCosts;
+		this.n = aoLocations.length;
+		this.AIRPORT = n;
+	}
+
+	void build(int[] representation, Random random) {
+
+		int k = Math.min(n, Math.max(1, (int) Math.round(Math.sqrt(n / 2.0))));
+		int[] aiCluster = new int[n];
+		Location[] aoCentroids = cluster(k, aiCluster, random);
+		k = aoCentroids.length;
+
+		// members of each cluster in CSR layout
+		int[] aiOffsets = new int[k + 1];
+		for(int i = 0; i < n; i++) {
+			aiOffsets[aiCluster[i] + 1]++;
+		}
+		for(int c = 0; c < k; c++) {
+			aiOffsets[c + 1] += aiOffsets[c];
+		}
+		int[] aiMembers = new int[n];
+		int[] aiFill = aiOffsets.clone();
+		for(int i = 0; i < n; i++) {
+			aiMembers[aiFill[aiCluster[i]]++] = i;
+		}
+
+		// visiting order of the clusters and where each one's path starts in the representation
+		int[] aiOrder = orderClusters(aoCentroids);
+		int[] aiStarts = new int[k + 1];
+		for(int p = 0; p < k; p++) {
+			aiStarts[p + 1] = aiStarts[p] + aiOffsets[aiOrder[p] + 1] - aiOffsets[aiOrder[p]];
+		}
+
+		Location[] aoOrderedCentroids = new Location[k];
+		for(int p = 0; p < k; p++) {
+			aoOrderedCentroids[p] = aoCentroids[aiOrder[p]];
+		}
+
+		final int iClusters = k;
+		IntStream.range(0, k).parallel().forEach(p -> {
+			int c = aiOrder[p];
+			Location oEntryAnchor = p == 0 ? oHotelLocation : aoOrderedCentroids[p - 1];
+			Location oExitAnchor = p == iClusters - 1 ? oAirportLocation : aoOrderedCentroids[p + 1];
+			buildClusterPath(aiMembers, aiOffsets[c], aiOffsets[c + 1], oEntryAnchor, oExitAnchor,
+					representation, aiStarts[p]);
+		});
+
+		stitch(representation, aiStarts, k);
+	}
+
+	/**
+	 * k-means on the coordinates, seeded with k distinct random locations.
+	 *
+	 * @param aiCluster Receives the cluster of each location.
+	 * @return The centroids of the non-empty clusters, which are numbered consecutively.
+	 */
+	private Location[] cluster(int k, int[] aiCluster, Random random) {
+
+		// seed the centroids with a partial Fisher-Yates shuffle of the location IDs
+		int[] aiIds = new int[n];
+		for(int i = 0; i < n; i++) {
+			aiIds[i] = i;
+		}
+		Location[] aoCentroids = new Location[k];
+		for(int c = 0; c < k; c++) {
+			int j = c + random.nextInt(n - c);
+			int tmp = aiIds[c]; aiIds[c] = aiIds[j]; aiIds[j] = tmp;
+			aoCentroids[c] = aoLocations[aiIds[c]];
+		}
+
+		long[] alSumX = new long[k];
+		long[] alSumY = new long[k];
+		int[] aiCounts = new int[k];
+		Arrays.fill(aiCluster, -1);
+
+		boolean bChanged = true;
+		for(int iteration = 0; iteration < MAX_ITERATIONS && bChanged; iteration++) {
+			bChanged = false;
+
+			// assign each location to its nearest centroid
+			KDTree oCentroidIndex = new KDTree(aoCentroids);
+			for(int i = 0; i < n; i++) {
+				int c = oCentroidIndex.nearest(aoLocations[i].x(), aoLocations[i].y());
+				if(c != aiCluster[i]) {
+					aiCluster[i] = c;
+					bChanged = true;
+				}
+			}
+
+			// move each centroid to the mean of its members
+			Arrays.fill(alSumX, 0);
+			Arrays.fill(alSumY, 0);
+			Arrays.fill(aiCounts, 0);
+			for(int i = 0; i < n; i++) {
+				alSumX[aiCluster[i]] += aoLocations[i].x();
+				alSumY[aiCluster[i]] += aoLocations[i].y();
+				aiCounts[aiCluster[i]]++;
+			}
+			for(int c = 0; c < k; c++) {
+				if(aiCounts[c] > 0) {
+					aoCentroids[c] = new Location((int) Math.round((double) alSumX[c] / aiCounts[c]),
+							(int) Math.round((double) alSumY[c] / aiCounts[c]));
+				}
+			}
+		}
+
+		// renumber the clusters so that empty ones are dropped
+		int[] aiRenumbered = new int[k];
+		int iNonEmpty = 0;
+		for(int c = 0; c < k; c++) {
+			aiRenumbered[c] = aiCounts[c] > 0 ? iNonEmpty++ : -1;
+		}
+		Location[] aoNonEmpty = new Location[iNonEmpty];
+		for(int c = 0; c < k; c++) {
+			if(aiRenumbered[c] != -1) {
+				aoNonEmpty[aiRenumbered[c]] = aoCentroids[c];
+			}
+		}
+		for(int i = 0; i < n; i++) {
+			aiCluster[i] = aiRenumbered[aiCluster[i]];
+		}
+
+		return aoNonEmpty;
+	}
+
+	/**
+	 * Orders the clusters by nearest neighbour over their centroids, starting from the HOTEL and keeping
+	 * the cluster nearest the AIRPORT for last. Takes O(k^2) for k clusters.
+	 */
+	private int[] orderClusters(Location[] aoCentroids) {
+
+		int k = aoCentroids.length;
+		int[] aiOrder = new int[k];
+		boolean[] abOrdered = new boolean[k];
+
+		int iLast = nearest(aoCentroids, abOrdered, oAirportLocation);
+		abOrdered[iLast] = true;
+		aiOrder[k - 1] = iLast;
+
+		Location oCurrent = oHotelLocation;
+		for(int p = 0; p < k - 1; p++) {
+			int c = nearest(aoCentroids, abOrdered, oCurrent);
+			abOrdered[c] = true;
+			aiOrder[p] = c;
+			oCurrent = aoCentroids[c];
+		}
+
+		return aiOrder;
+	}
+
+	/**
+	 * Writes a nearest neighbour path through the members <code>aiMembers[iFrom .. iTo - 1]</code> into
+	 * <code>representation</code> from position <code>iStart</code>. The path starts at the member nearest
+	 * <code>oEntryAnchor</code> and ends at the member nearest <code>oExitAnchor</code>.
+	 */
+	private void buildClusterPath(int[] aiMembers, int iFrom, int iTo, Location oEntryAnchor, Location oExitAnchor,
+								  int[] representation, int iStart) {
+
+		int m = iTo - iFrom;
+		Location[] aoMembers = new Location[m];
+		for(int j = 0; j < m; j++) {
+			aoMembers[j] = aoLocations[aiMembers[iFrom + j]];
+		}
+
+		boolean[] abUsed = new boolean[m];
+		int iEntry = nearest(aoMembers, abUsed, oEntryAnchor);
+		abUsed[iEntry] = true;
+		representation[iStart] = aiMembers[iFrom + iEntry];
+		if(m == 1) {
+			return;
+		}
+		int iExit = nearest(aoMembers, abUsed, oExitAnchor);
+		abUsed[iExit] = true;
+		representation[iStart + m - 1] = aiMembers[iFrom + iExit];
+
+		if(bEuclideanCosts) {
+			KDTree.DeletionSearch unvisited = new KDTree(aoMembers).newDeletionSearch();
+			unvisited.remove(iEntry);
+			unvisited.remove(iExit);
+
+			int iCurrent = iEntry;
+			for(int p = 1; p < m - 1; p++) {
+				int j = unvisited.nearest(aoMembers[iCurrent].x(), aoMembers[iCurrent].y());
+				unvisited.remove(j);
+				representation[iStart + p] = aiMembers[iFrom + j];
+				iCurrent = j;
+			}
+		} else {
+			int iCurrent = aiMembers[iFrom + iEntry];
+			for(int p = 1; p < m - 1; p++) {
+				int iNearest = -1;
+				int minDistance = Integer.MAX_VALUE;
+				for(int j = 0; j < m; j++) {
+					if(!abUsed[j]) {
+						int distance = f.getCost(iCurrent, aiMembers[iFrom + j]);
+						if(distance < minDistance) {
+							minDistance = distance;
+							iNearest = j;
+						}
+					}
+				}
+				abUsed[iNearest] = true;
+				iCurrent = aiMembers[iFrom + iNearest];
+				representation[iStart + p] = iCurrent;
+			}
+		}
+	}
+
+	/**
+	 * Reverses the path of each cluster, in visiting order, where that makes the tour cheaper.
+	 */
+	private void stitch(int[] representation, int[] aiStarts, int k) {
+
+		for(int p = 0; p < k; p++) {
+			int iFirst = aiStarts[p], iLast = aiStarts[p + 1] - 1;
+			if(iFirst == iLast) {
+				continue;
+			}
+
+			int iPrevious = p == 0 ? HOTEL : representation[iFirst - 1];
+			int iNext = p == k - 1 ? AIRPORT : representation[iLast + 1];
+			long forward = cost(iPrevious, representation[iFirst]) + cost(representation[iLast], iNext);
+			long reversed = cost(iPrevious, representation[iLast]) + cost(representation[iFirst], iNext);
+
+			// with asymmetric costs, reversing also changes the cost of the path itself
+			if(!bEuclideanCosts) {
+				for(int i = iFirst; i < iLast; i++) {
+					forward += f.getCost(representation[i], representation[i + 1]);
+					reversed += f.getCost(representation[i + 1], representation[i]);
+				}
+			}
+
+			if(reversed < forward) {
+				for(int i = iFirst, j = iLast; i < j; i++, j--) {
+					int tmp = representation[i];
+					representation[i] = representation[j];
+					representation[j] = tmp;
+				}
+			}
+		}
+	}
+
+	private int cost(int iFrom, int iTo) {
+
+		if(iFrom == HOTEL) {
+			return f.getCostBetweenHotelAnd(iTo);
+		} else if(iTo == AIRPORT) {
+			return f.getCostBetweenAirportAnd(iFrom);
+		} else {
+			return f.getCost(iFrom, iTo);
+		}
+	}
+
+	/**
+	 * @return The index of the unused location nearest to <code>oTarget</code> by squared Euclidean distance.
+	 */
+	private static int nearest(Location[] aoCandidates, boolean[] abUsed, Location oTarget) {
+
+		int iNearest = -1;
+		long minDistance = Long.MAX_VALUE;
+		for(int j = 0; j < aoCandidates.length; j++) {
+			if(!abUsed[j]) {
+				long dx = (long) aoCandidates[j].x() - oTarget.x();
+				long dy = (long) aoCandidates[j].y() - oTarget.y();
+				long distance = dx * dx + dy * dy;
+				if(distance < minDistance) {
+					minDistance = distance;
+					iNearest = j;
+				}
+			}
+		}
+		return iNearest;
+	}
+}
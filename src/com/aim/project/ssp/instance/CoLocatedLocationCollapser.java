@@ -0,0 +1,115 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+
+/**
+ * Optional preprocessing stage run after reading an instance. Sightseeing locations whose
+ * coordinates are identical, or lie within <code>epsilon</code> of each other, are merged into
+ * a single super-node so that the search runs on a smaller instance.
+ *
+ * With an epsilon of 0 only exact duplicates are merged. These are joined by zero-cost edges, so
+ * the objective value of any tour over the reduced instance equals that of its expansion. Larger
+ * epsilons trade exactness for a smaller instance: each super-node is placed at its first member,
+ * the edges between members are not costed, and the members are expanded in original ID order, so
+ * an expanded tour can cost more than the tour the search optimised.
+ *
+ * Instances with an explicit distance matrix are left unchanged, as their costs do not follow from
+ * the coordinates.
+ */
+public class CoLocatedLocationCollapser {
+
+	private final double dEpsilon;
+
+	public CoLocatedLocationCollapser(double dEpsilon) {
+
+		if(dEpsilon < 0) {
+			throw new IllegalArgumentException("Epsilon must not be negative: " + dEpsilon);
+		}
+
+		this.dEpsilon = dEpsilon;
+	}
+
+	/**
+	 * @param oInstance The instance as read from file.
+	 * @param random The random number generator to use for the reduced instance.
+	 * @return The reduced instance, or <code>oInstance</code> itself if no locations could be merged.
+	 */
+	public SSPInstanceInterface collapse(SSPInstanceInterface oInstance, Random random) {
+
+		if(oInstance instanceof MatrixSSPInstance) {
+			return oInstance;
+		}
+
+		int n = oInstance.getNumberOfLocations();
+		Location[] aoLocations = new Location[n];
+		for(int i = 0; i < n; i++) {
+			aoLocations[i] = oInstance.getSightseeingLocation(i);
+		}
+
+		// Sort location IDs by x-coordinate (ties by ID) using packed primitive keys
+		long[] alKeys = new long[n];
+		for(int i = 0; i < n; i++) {
+			alKeys[i] = ((long) aoLocations[i].x() << 32) | i;
+		}
+		Arrays.sort(alKeys);
+
+		// Sweep along x assigning each unassigned location, and everything within epsilon of it, to a super-node
+		int[] aiSuperNode = new int[n];
+		Arrays.fill(aiSuperNode, -1);
+		int[] aiMemberCounts = new int[n];
+		int iNumberOfSuperNodes = 0;
+		double dEpsilonSquared = dEpsilon * dEpsilon;
+
+		for(int a = 0; a < n; a++) {
+			int i = (int) alKeys[a];
+			if(aiSuperNode[i] != -1) {
+				continue;
+			}
+
+			int iSuperNode = iNumberOfSuperNodes++;
+			aiSuperNode[i] = iSuperNode;
+			aiMemberCounts[iSuperNode]++;
+
+			for(int b = a + 1; b < n; b++) {
+				int j = (int) alKeys[b];
+				double dx = aoLocations[j].x() - aoLocations[i].x();
+				if(dx > dEpsilon) {
+					break;
+				}
+
+				double dy = aoLocations[j].y() - aoLocations[i].y();
+				if(aiSuperNode[j] == -1 && dx * dx + dy * dy <= dEpsilonSquared) {
+					aiSuperNode[j] = iSuperNode;
+					aiMemberCounts[iSuperNode]++;
+				}
+			}
+		}
+
+		if(iNumberOfSuperNodes == n) {
+			return oInstance;
+		}
+
+		// Build the compressed member lists, keeping members of each super-node in original ID order
+		int[] aiMemberOffsets = new int[iNumberOfSuperNodes + 1];
+		for(int s = 0; s < iNumberOfSuperNodes; s++) {
+			aiMemberOffsets[s + 1] = aiMemberOffsets[s] + aiMemberCounts[s];
+		}
+
+		int[] aiNext = Arrays.copyOf(aiMemberOffsets, iNumberOfSuperNodes);
+		int[] aiMembers = new int[n];
+		Location[] aoSuperNodes = new Location[iNumberOfSuperNodes];
+		for(int i = 0; i < n; i++) {
+			int s = aiSuperNode[i];
+			if(aoSuperNodes[s] == null) {
+				aoSuperNodes[s] = aoLocations[i];
+			}
+			aiMembers[aiNext[s]++] = i;
+		}
+
+		return new RemappedSSPInstance(aoSuperNodes, aoLocations, aiMemberOffsets, aiMembers,
+				oInstance.getHotelLocation(), oInstance.getAirportLocation(), random);
+	}
+}
@@ -0,0 +1,79 @@
+package com.aim.project.ssp.instance;
+
+/**
+ * Precomputed Euclidean travel costs for an instance: the HOTEL and AIRPORT costs of every location
+ * and, for instances small enough to hold one, the full location-to-location cost matrix.
+ *
+ * All fields are final, so a table built on one thread is safely visible to every other thread once
+ * published through a volatile reference.
+ */
+public class DistanceTables {
+
+	/**
+	 * Largest number of locations for which the full cost matrix is built (about 64MB of ints).
+	 */
+	public static final int MAX_MATRIX_LOCATIONS = 4096;
+
+	private final int iNumberOfLocations;
+
+	private final int[] aiHotelCosts;
+
+	private final int[] aiAirportCosts;
+
+	// row-major n x n costs, or null for instances above MAX_MATRIX_LOCATIONS
+	private final int[] aiCosts;
+
+	public DistanceTables(Location[] aoLocations, Location oHotelLocation, Location oAirportLocation) {
+
+		int n = aoLocations.length;
+		this.iNumberOfLocations = n;
+		this.aiHotelCosts = new int[n];
+		this.aiAirportCosts = new int[n];
+
+		for(int i = 0; i < n; i++) {
+			aiHotelCosts[i] = distance(oHotelLocation, aoLocations[i]);
+			aiAirportCosts[i] = distance(aoLocations[i], oAirportLocation);
+		}
+
+		if(n <= MAX_MATRIX_LOCATIONS) {
+			aiCosts = new int[n * n];
+			for(int i = 0; i < n; i++) {
+				for(int j = i + 1; j < n; j++) {
+					int d = distance(aoLocations[i], aoLocations[j]);
+					aiCosts[i * n + j] = d;
+					aiCosts[j * n + i] = d;
+				}
+			}
+		} else {
+			aiCosts = null;
+		}
+	}
+
+	/**
+	 * @return The ceil-rounded Euclidean distance between two locations.
+	 */
+	public static int distance(Location loc1, Location loc2) {
+		double dx = loc1.x() - loc2.x();
+		double dy = loc1.y() - loc2.y();
+		return (int) Math.ceil(Math.sqrt(dx * dx + dy * dy));
+	}
+
+	public boolean hasCostMatrix() {
+		return aiCosts != null;
+	}
+
+	/**
+	 * Only valid when {@link #hasCostMatrix()} is true.
+	 */
+	public int getCost(int iLocationA, int iLocationB) {
+		return aiCosts[iLocationA * iNumberOfLocations + iLocationB];
+	}
+
+	public int getCostBetweenHotelAnd(int iLocation) {
+		return aiHotelCosts[iLocation];
+	}
+
+	public int getCostBetweenAirportAnd(int iLocation) {
+		return aiAirportCosts[iLocation];
+	}
+}
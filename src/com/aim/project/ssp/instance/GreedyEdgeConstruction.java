@@ -0,0 +1,260 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+
+/**
+ * Greedy edge construction of a tour from the HOTEL to the AIRPORT.
+ *
+ * Candidate edges (the instance's candidate graph plus the cheapest edges leaving the HOTEL and entering
+ * the AIRPORT) are sorted by cost using packed primitive keys and added cheapest first, as long as no
+ * location gets more than two tour edges (one for the HOTEL and AIRPORT), no cycle is closed and the HOTEL
+ * is not joined to the AIRPORT early; union-find keeps the cycle checks near O(1). The resulting path
+ * fragments are then stitched together, starting from the HOTEL, by repeatedly jumping to the nearest
+ * free fragment end. All n^2 edges are never materialised, so this scales to 100k+ locations.
+ */
+class GreedyEdgeConstruction {
+
+	// number of cheapest edges considered from the HOTEL and into the AIRPORT
+	private static final int ENDPOINT_CANDIDATES = 10;
+
+	private final Location[] aoLocations;
+
+	private final Location oHotelLocation;
+
+	private final ObjectiveFunctionInterface f;
+
+	private final CandidateGraph oCandidates;
+
+	private final int n;
+
+	private final int HOTEL;
+
+	private final int AIRPORT;
+
+	// union-find forest over all nodes (locations, then HOTEL, then AIRPORT)
+	private final int[] aiParent;
+
+	// the (at most two) tour neighbours of each node, -1 if unused
+	private final int[] aiAdjacent1;
+
+	private final int[] aiAdjacent2;
+
+	GreedyEdgeConstruction(Location[] aoLocations, Location oHotelLocation, ObjectiveFunctionInterface f,
+						   CandidateGraph oCandidates) {
+
+		this.aoLocations = aoLocations;
+		this.oHotelLocation = oHotelLocation;
+		this.f = f;
+		this.oCandidates = oCandidates;
+		this.n = aoLocations.length;
+		this.HOTEL = n;
+		this.AIRPORT = n + 1;
+		this.aiParent = new int[n + 2];
+		this.aiAdjacent1 = new int[n + 2];
+		this.aiAdjacent2 = new int[n + 2];
+	}
+
+	void build(int[] representation) {
+
+		for(int i = 0; i < n + 2; i++) {
+			aiParent[i] = i;
+		}
+		Arrays.fill(aiAdjacent1, -1);
+		Arrays.fill(aiAdjacent2, -1);
+
+		matchEdges();
+		stitchFragments(representation);
+	}
+
+	/**
+	 * Greedy matching phase: adds candidate edges cheapest first subject to the degree and cycle constraints.
+	 */
+	private void matchEdges() {
+
+		int[] aiOffsets = oCandidates.getOffsets();
+		int[] aiNeighbours = oCandidates.getNeighbours();
+		int[] aiHotelEdges = cheapestEndpointEdges(true);
+		int[] aiAirportEdges = cheapestEndpointEdges(false);
+
+		int m = aiNeighbours.length + aiHotelEdges.length + aiAirportEdges.length;
+		int[] aiFrom = new int[m];
+		int[] aiTo = new int[m];
+		long[] alKeys = new long[m];
+
+		int e = 0;
+		for(int i = 0; i < n; i++) {
+			for(int c = aiOffsets[i]; c < aiOffsets[i + 1]; c++) {
+				aiFrom[e] = i;
+				aiTo[e] = aiNeighbours[c];
+				alKeys[e] = ((long) f.getCost(i, aiNeighbours[c]) << 32) | e;
+				e++;
+			}
+		}
+		for(int j : aiHotelEdges) {
+			aiFrom[e] = HOTEL;
+			aiTo[e] = j;
+			alKeys[e] = ((long) f.getCostBetweenHotelAnd(j) << 32) | e;
+			e++;
+		}
+		for(int j : aiAirportEdges) {
+			aiFrom[e] = j;
+			aiTo[e] = AIRPORT;
+			alKeys[e] = ((long) f.getCostBetweenAirportAnd(j) << 32) | e;
+			e++;
+		}
+
+		Arrays.sort(alKeys);
+
+		for(long key : alKeys) {
+			int edge = (int) key;
+			int u = aiFrom[edge], v = aiTo[edge];
+			if(isFull(u) || isFull(v)) {
+				continue;
+			}
+
+			int ru = find(u), rv = find(v);
+			if(ru == rv) {
+				continue; // would close a cycle
+			}
+
+			int rHotel = find(HOTEL), rAirport = find(AIRPORT);
+			if((ru == rHotel && rv == rAirport) || (ru == rAirport && rv == rHotel)) {
+				continue; // would end the tour before every location is visited
+			}
+
+			aiParent[ru] = rv;
+			connect(u, v);
+			connect(v, u);
+		}
+	}
+
+	/**
+	 * Stitching phase: walks from the HOTEL along its fragment, then repeatedly appends the fragment with the
+	 * free end nearest to the current end, and finally appends the AIRPORT's fragment.
+	 */
+	private void stitchFragments(int[] representation) {
+
+		int rHotel = find(HOTEL), rAirport = find(AIRPORT);
+
+		// free ends of the fragments that contain neither the HOTEL nor the AIRPORT
+		int iEnds = 0;
+		int[] aiEnds = new int[n];
+		for(int i = 0; i < n; i++) {
+			if(aiAdjacent2[i] == -1 && find(i) != rHotel && find(i) != rAirport) {
+				aiEnds[iEnds++] = i;
+			}
+		}
+
+		Location[] aoEnds = new Location[iEnds];
+		for(int e = 0; e < iEnds; e++) {
+			aoEnds[e] = aoLocations[aiEnds[e]];
+		}
+		KDTree.DeletionSearch freeEnds = new KDTree(aoEnds).newDeletionSearch();
+		int[] aiEndIndex = new int[n];
+		for(int e = 0; e < iEnds; e++) {
+			aiEndIndex[aiEnds[e]] = e;
+		}
+
+		// walk the HOTEL's fragment
+		int position = 0;
+		int end = HOTEL;
+		int previous = -1;
+		for(int next = aiAdjacent1[HOTEL]; next != -1; next = otherNeighbour(end, previous)) {
+			representation[position++] = next;
+			previous = end;
+			end = next;
+		}
+
+		// append the fragment with the nearest free end until only the AIRPORT's fragment is left
+		while(freeEnds.remaining() > 0) {
+			Location current = end == HOTEL ? oHotelLocation : aoLocations[end];
+			int start = aiEnds[freeEnds.nearest(current.x(), current.y())];
+			freeEnds.remove(aiEndIndex[start]);
+
+			previous = -1;
+			end = start;
+			representation[position++] = start;
+			for(int next = aiAdjacent1[start]; next != -1; next = otherNeighbour(end, previous)) {
+				representation[position++] = next;
+				previous = end;
+				end = next;
+			}
+			freeEnds.remove(aiEndIndex[end]);
+		}
+
+		// append the AIRPORT's fragment, walking backwards from the AIRPORT to find its order
+		int iFragmentStart = position;
+		previous = AIRPORT;
+		for(int next = aiAdjacent1[AIRPORT]; next != -1; ) {
+			representation[position++] = next;
+			int after = otherNeighbour(next, previous);
+			previous = next;
+			next = after;
+		}
+		reverse(representation, iFragmentStart, position - 1);
+	}
+
+	private int otherNeighbour(int node, int previous) {
+
+		return aiAdjacent1[node] == previous ? aiAdjacent2[node] : aiAdjacent1[node];
+	}
+
+	private int[] cheapestEndpointEdges(boolean bHotel) {
+
+		int k = Math.min(ENDPOINT_CANDIDATES, n);
+		long[] alBest = new long[k];
+		int iCount = 0;
+		for(int j = 0; j < n; j++) {
+			int cost = bHotel ? f.getCostBetweenHotelAnd(j) : f.getCostBetweenAirportAnd(j);
+			long key = ((long) cost << 32) | j;
+			if(iCount < k || key < alBest[k - 1]) {
+				int p = iCount < k ? iCount++ : k - 1;
+				while(p > 0 && alBest[p - 1] > key) {
+					alBest[p] = alBest[p - 1];
+					p--;
+				}
+				alBest[p] = key;
+			}
+		}
+
+		int[] aiEdges = new int[iCount];
+		for(int c = 0; c < iCount; c++) {
+			aiEdges[c] = (int) alBest[c];
+		}
+		return aiEdges;
+	}
+
+	private boolean isFull(int node) {
+
+		return node >= n ? aiAdjacent1[node] != -1 : aiAdjacent2[node] != -1;
+	}
+
+	private void connect(int node, int neighbour) {
+
+		if(aiAdjacent1[node] == -1) {
+			aiAdjacent1[node] = neighbour;
+		} else {
+			aiAdjacent2[node] = neighbour;
+		}
+	}
+
+	private int find(int node) {
+
+		while(aiParent[node] != node) {
+			aiParent[node] = aiParent[aiParent[node]];
+			node = aiParent[node];
+		}
+		return node;
+	}
+
+	private static void reverse(int[] array, int i, int j) {
+
+		while(i < j) {
+			int tmp = array[i];
+			array[i++] = array[j];
+			array[j--] = tmp;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+
+/**
+ * Maps locations onto a Hilbert space-filling curve. Locations that are close along the curve are
+ * close in the plane, so ordering by curve index gives a spatially local ordering in O(n log n).
+ */
+public class HilbertCurve {
+
+	/**
+	 * Number of bits per coordinate; keeps every curve index below 2^30 so that it can be packed
+	 * together with a location ID into a single, non-negative, long sort key.
+	 */
+	public static final int ORDER = 15;
+
+	private HilbertCurve() {
+	}
+
+	/**
+	 * @param x The x-coordinate, in [0, 2^ORDER).
+	 * @param y The y-coordinate, in [0, 2^ORDER).
+	 * @return The distance of (x, y) along the Hilbert curve.
+	 */
+	public static long index(int x, int y) {
+
+		int n = 1 << ORDER;
+		long d = 0;
+		for(int s = n / 2; s > 0; s /= 2) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+
+			// rotate the quadrant so that the curve is continuous
+			if(ry == 0) {
+				if(rx == 1) {
+					x = n - 1 - x;
+					y = n - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * Computes the Hilbert curve index of every location after scaling the bounding box of the
+	 * locations onto the curve's grid.
+	 *
+	 * @param aoLocations The locations.
+	 * @return The curve index of each location.
+	 */
+	public static long[] indices(Location[] aoLocations) {
+
+		long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE;
+		for(Location l : aoLocations) {
+			minX = Math.min(minX, l.x());
+			minY = Math.min(minY, l.y());
+			maxX = Math.max(maxX, l.x());
+			maxY = Math.max(maxY, l.y());
+		}
+
+		double dScale = ((1 << ORDER) - 1) / (double) Math.max(1, Math.max(maxX - minX, maxY - minY));
+		long[] alIndices = new long[aoLocations.length];
+		for(int i = 0; i < aoLocations.length; i++) {
+			int x = (int) ((aoLocations[i].x() - minX) * dScale);
+			int y = (int) ((aoLocations[i].y() - minY) * dScale);
+			alIndices[i] = index(x, y);
+		}
+		return alIndices;
+	}
+
+	/**
+	 * @param aoLocations The locations.
+	 * @return The location IDs (indices into <code>aoLocations</code>) in Hilbert curve order.
+	 */
+	public static int[] order(Location[] aoLocations) {
+
+		long[] alKeys = indices(aoLocations);
+		for(int i = 0; i < alKeys.length; i++) {
+			alKeys[i] = (alKeys[i] << 32) | i;
+		}
+		Arrays.sort(alKeys);
+
+		int[] aiOrder = new int[alKeys.length];
+		for(int i = 0; i < alKeys.length; i++) {
+			aiOrder[i] = (int) alKeys[i];
+		}
+		return aiOrder;
+	}
+}
@@ -0,0 +1,69 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+
+/**
+ * Optional preprocessing stage that renumbers the sightseeing locations along a Hilbert curve, so that
+ * a spatially local tour also walks through the location and distance arrays in order.
+ *
+ * The permutation back to the original IDs is kept by the resulting {@link RemappedSSPInstance}, so
+ * printed and visualised solutions still show the original locations. Renumbering a collapsed instance
+ * keeps its super-nodes. Instances with an explicit distance matrix are left unchanged, as their costs
+ * are addressed by the original IDs.
+ */
+public class HilbertLocationRenumberer {
+
+	/**
+	 * @param oInstance The instance to renumber.
+	 * @param random The random number generator to use for the renumbered instance.
+	 * @return The renumbered instance.
+	 */
+	public SSPInstanceInterface renumber(SSPInstanceInterface oInstance, Random random) {
+
+		if(oInstance instanceof MatrixSSPInstance) {
+			return oInstance;
+		}
+
+		int n = oInstance.getNumberOfLocations();
+		Location[] aoLocations = new Location[n];
+		for(int i = 0; i < n; i++) {
+			aoLocations[i] = oInstance.getSightseeingLocation(i);
+		}
+
+		// Existing mapping to the original locations (the identity for an instance read from file)
+		Location[] aoOriginalLocations = aoLocations;
+		int[] aiMemberOffsets = new int[n + 1];
+		int[] aiMembers = new int[n];
+		for(int i = 0; i < n; i++) {
+			aiMemberOffsets[i + 1] = i + 1;
+			aiMembers[i] = i;
+		}
+
+		if(oInstance instanceof RemappedSSPInstance oRemapped) {
+			aoOriginalLocations = oRemapped.getOriginalLocations();
+			aiMemberOffsets = oRemapped.getMemberOffsets();
+			aiMembers = oRemapped.getMembers();
+		}
+
+		// Renumber so that new ID i is the i-th location along the curve
+		int[] aiOrder = HilbertCurve.order(aoLocations);
+		Location[] aoRenumbered = new Location[n];
+		int[] aiNewOffsets = new int[n + 1];
+		int[] aiNewMembers = new int[aiMembers.length];
+
+		for(int i = 0; i < n; i++) {
+			int iOld = aiOrder[i];
+			// fresh copies are allocated in curve order, so the locations are also adjacent on the heap
+			aoRenumbered[i] = new Location(aoLocations[iOld].x(), aoLocations[iOld].y());
+
+			int iCount = aiMemberOffsets[iOld + 1] - aiMemberOffsets[iOld];
+			System.arraycopy(aiMembers, aiMemberOffsets[iOld], aiNewMembers, aiNewOffsets[i], iCount);
+			aiNewOffsets[i + 1] = aiNewOffsets[i] + iCount;
+		}
+
+		return new RemappedSSPInstance(aoRenumbered, aoOriginalLocations, aiNewOffsets, aiNewMembers,
+				oInstance.getHotelLocation(), oInstance.getAirportLocation(), random);
+	}
+}
@@ -7,5 +7,5 @@ package com.aim.project.ssp.instance;
  */
 public enum InitialisationMode {
 
-	RANDOM, CONSTRUCTIVE
+	RANDOM, CONSTRUCTIVE, SPACE_FILLING_CURVE, GREEDY_EDGE, GRASP, CLUSTER_FIRST
 }
@@ -0,0 +1,191 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Arrays;
+
+/**
+ * A cheap summary of an SSP instance, computed once per instance on first use, that runners and
+ * hyper-heuristics can use to pick a configuration (memory size, depth of search, ...) per instance.
+ *
+ * @param numberOfLocations The number of sightseeing locations (excludes the HOTEL and AIRPORT).
+ * @param minX Smallest x-coordinate of any location, including the HOTEL and AIRPORT.
+ * @param minY Smallest y-coordinate of any location, including the HOTEL and AIRPORT.
+ * @param maxX Largest x-coordinate of any location, including the HOTEL and AIRPORT.
+ * @param maxY Largest y-coordinate of any location, including the HOTEL and AIRPORT.
+ * @param minNearestNeighbourDistance Smallest Euclidean distance from a sightseeing location to its nearest neighbour.
+ * @param meanNearestNeighbourDistance Mean Euclidean distance from a sightseeing location to its nearest neighbour.
+ * @param maxNearestNeighbourDistance Largest Euclidean distance from a sightseeing location to its nearest neighbour.
+ * @param stdDevNearestNeighbourDistance Standard deviation of the nearest neighbour distances.
+ * @param clusteringCoefficient Variance-to-mean ratio of the location counts over a sqrt(n) x sqrt(n) grid of the
+ *                              bounding box: about 1 for uniformly random points, below 1 for regular layouts
+ *                              and well above 1 for clustered instances.
+ * @param hotelAirportDistance Euclidean distance between the HOTEL and the AIRPORT.
+ */
+public record InstanceFeatures(int numberOfLocations,
+							   int minX, int minY, int maxX, int maxY,
+							   double minNearestNeighbourDistance,
+							   double meanNearestNeighbourDistance,
+							   double maxNearestNeighbourDistance,
+							   double stdDevNearestNeighbourDistance,
+							   double clusteringCoefficient,
+							   double hotelAirportDistance) {
+
+	/**
+	 * Extracts the features of an instance.
+	 *
+	 * @param aoLocations The sightseeing locations.
+	 * @param oHotelLocation The HOTEL location.
+	 * @param oAirportLocation The AIRPORT location.
+	 * @return The features of the instance.
+	 */
+	public static InstanceFeatures of(Location[] aoLocations, Location oHotelLocation, Location oAirportLocation) {
+
+		int n = aoLocations.length;
+
+		// Bounding box
+		int minX = Math.min(oHotelLocation.x(), oAirportLocation.x());
+		int minY = Math.min(oHotelLocation.y(), oAirportLocation.y());
+		int maxX = Math.max(oHotelLocation.x(), oAirportLocation.x());
+		int maxY = Math.max(oHotelLocation.y(), oAirportLocation.y());
+		for(Location l : aoLocations) {
+			minX = Math.min(minX, l.x());
+			minY = Math.min(minY, l.y());
+			maxX = Math.max(maxX, l.x());
+			maxY = Math.max(maxY, l.y());
+		}
+
+		// The nearest neighbour search and the clustering coefficient share a sqrt(n) x sqrt(n) grid of the bounding box
+		int iCells = (int) Math.ceil(Math.sqrt(n));
+		int[] aiCells = gridCells(aoLocations, iCells, minX, minY, maxX, maxY);
+
+		// Nearest neighbour distance statistics
+		double[] adNearest = nearestNeighbourDistances(aoLocations, aiCells, iCells, minX, minY, maxX, maxY);
+		double dMin = 0, dMax = 0, dMean = 0, dStdDev = 0;
+		if(n > 1) {
+			dMin = Double.MAX_VALUE;
+			for(double d : adNearest) {
+				dMin = Math.min(dMin, d);
+				dMax = Math.max(dMax, d);
+				dMean += d;
+			}
+			dMean /= n;
+
+			for(double d : adNearest) {
+				dStdDev += (d - dMean) * (d - dMean);
+			}
+			dStdDev = Math.sqrt(dStdDev / n);
+		}
+
+		double dHotelAirport = Math.hypot(oHotelLocation.x() - oAirportLocation.x(), oHotelLocation.y() - oAirportLocation.y());
+
+		return new InstanceFeatures(n, minX, minY, maxX, maxY, dMin, dMean, dMax, dStdDev,
+				clusteringCoefficient(aiCells, iCells), dHotelAirport);
+	}
+
+	/**
+	 * @return For each location, the index <code>cy * iCells + cx</code> of the cell of an iCells x iCells
+	 * grid of the bounding box that contains it.
+	 */
+	private static int[] gridCells(Location[] aoLocations, int iCells, int minX, int minY, int maxX, int maxY) {
+
+		double dWidth = Math.max(1, (double) maxX - minX) / iCells;
+		double dHeight = Math.max(1, (double) maxY - minY) / iCells;
+
+		int[] aiCells = new int[aoLocations.length];
+		for(int i = 0; i < aoLocations.length; i++) {
+			int cx = Math.min(iCells - 1, (int) ((aoLocations[i].x() - minX) / dWidth));
+			int cy = Math.min(iCells - 1, (int) ((aoLocations[i].y() - minY) / dHeight));
+			aiCells[i] = cy * iCells + cx;
+		}
+		return aiCells;
+	}
+
+	/**
+	 * Finds the nearest neighbour distance of every location by searching the grid cells in rings around
+	 * its own cell, stopping as soon as the next ring lies further away than the best distance found.
+	 * Unless the locations are heavily clustered, this looks at O(1) cells per location.
+	 */
+	private static double[] nearestNeighbourDistances(Location[] aoLocations, int[] aiCells, int iCells,
+													  int minX, int minY, int maxX, int maxY) {
+
+		int n = aoLocations.length;
+		double[] adNearest = new double[n];
+		if(n < 2) {
+			return adNearest;
+		}
+
+		// Compressed lists of the locations in each cell
+		int[] aiOffsets = new int[iCells * iCells + 1];
+		for(int c : aiCells) {
+			aiOffsets[c + 1]++;
+		}
+		for(int c = 0; c < iCells * iCells; c++) {
+			aiOffsets[c + 1] += aiOffsets[c];
+		}
+		int[] aiNext = Arrays.copyOf(aiOffsets, iCells * iCells);
+		int[] aiMembers = new int[n];
+		for(int i = 0; i < n; i++) {
+			aiMembers[aiNext[aiCells[i]]++] = i;
+		}
+
+		// Every location beyond ring r is at least r cell sides away
+		double dSide = Math.min(Math.max(1, (double) maxX - minX), Math.max(1, (double) maxY - minY)) / iCells;
+
+		for(int i = 0; i < n; i++) {
+			Location l = aoLocations[i];
+			int cx = aiCells[i] % iCells, cy = aiCells[i] / iCells;
+			long lBest = Long.MAX_VALUE;
+
+			for(int r = 0; r < iCells; r++) {
+				for(int y = Math.max(0, cy - r); y <= Math.min(iCells - 1, cy + r); y++) {
+					// the top and bottom rows of the ring are searched in full, the rows in between at both ends
+					int xStep = y == cy - r || y == cy + r ? 1 : 2 * r;
+					for(int x = cx - r; x <= cx + r; x += xStep) {
+						if(x < 0 || x >= iCells) {
+							continue;
+						}
+
+						int c = y * iCells + x;
+						for(int m = aiOffsets[c]; m < aiOffsets[c + 1]; m++) {
+							int j = aiMembers[m];
+							if(j != i) {
+								long dx = aoLocations[j].x() - l.x();
+								long dy = aoLocations[j].y() - l.y();
+								lBest = Math.min(lBest, dx * dx + dy * dy);
+							}
+						}
+					}
+				}
+
+				if(lBest <= (r * dSide) * (r * dSide)) {
+					break;
+				}
+			}
+
+			adNearest[i] = Math.sqrt(lBest);
+		}
+
+		return adNearest;
+	}
+
+	private static double clusteringCoefficient(int[] aiCells, int iCells) {
+
+		int n = aiCells.length;
+		if(n < 2) {
+			return 0;
+		}
+
+		int[] aiCounts = new int[iCells * iCells];
+		for(int c : aiCells) {
+			aiCounts[c]++;
+		}
+
+		double dMean = (double) n / aiCounts.length;
+		double dVariance = 0;
+		for(int c : aiCounts) {
+			dVariance += (c - dMean) * (c - dMean);
+		}
+		dVariance /= aiCounts.length;
+
+		return dVariance / dMean;
+	}
+}
@@ -0,0 +1,431 @@
+package com.aim.project.ssp.instance;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Static 2-d tree over the sightseeing locations of an instance, built once in O(n log n) and used for
+ * nearest neighbour, k-nearest and radius queries.
+ *
+ * The tree is implicit: node positions are stored in flat primitive arrays and the node for the range
+ * [lo, hi) is at its middle position, with its left subtree in [lo, mid) and its right in (mid, hi).
+ * Queries with deletion (e.g. "nearest unvisited") go through a {@link DeletionSearch}, which keeps its
+ * own alive-counts so that the tree itself stays immutable and can be shared between threads.
+ */
+public class KDTree {
+
+	private final int n;
+
+	// coordinates and location IDs in tree order
+	private final long[] alX;
+
+	private final long[] alY;
+
+	private final int[] aiIds;
+
+	// tree position of each location ID
+	private final int[] aiPositions;
+
+	// true if the node at a position splits on x, false if it splits on y
+	private final boolean[] abSplitsOnX;
+
+	public KDTree(Location[] aoLocations) {
+
+		this.n = aoLocations.length;
+		this.alX = new long[n];
+		this.alY = new long[n];
+		this.aiIds = new int[n];
+		this.aiPositions = new int[n];
+		this.abSplitsOnX = new boolean[n];
+
+		for(int i = 0; i < n; i++) {
+			aiIds[i] = i;
+			alX[i] = aoLocations[i].x();
+			alY[i] = aoLocations[i].y();
+		}
+
+		build(0, n);
+
+		for(int p = 0; p < n; p++) {
+			aiPositions[aiIds[p]] = p;
+		}
+	}
+
+	private void build(int lo, int hi) {
+
+		if(hi - lo <= 1) {
+			return;
+		}
+
+		// split on the dimension with the larger spread
+		long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE, minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+		for(int p = lo; p < hi; p++) {
+			minX = Math.min(minX, alX[p]);
+			maxX = Math.max(maxX, alX[p]);
+			minY = Math.min(minY, alY[p]);
+			maxY = Math.max(maxY, alY[p]);
+		}
+		boolean bSplitOnX = maxX - minX >= maxY - minY;
+
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, bSplitOnX);
+		abSplitsOnX[mid] = bSplitOnX;
+
+		build(lo, mid);
+		build(mid + 1, hi);
+	}
+
+	/**
+	 * Quickselect: partially sorts [lo, hi] so that position k holds the element that would be there if
+	 * the range were sorted on the given dimension, with smaller-or-equal elements before it.
+	 */
+	private void select(int lo, int hi, int k, boolean bOnX) {
+
+		long[] alKey = bOnX ? alX : alY;
+		while(hi > lo) {
+			long pivot = alKey[(lo + hi) >>> 1];
+			int i = lo, j = hi;
+			while(i <= j) {
+				while(alKey[i] < pivot) i++;
+				while(alKey[j] > pivot) j--;
+				if(i <= j) {
+					swap(i++, j--);
+				}
+			}
+			if(k <= j) {
+				hi = j;
+			} else if(k >= i) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void swap(int i, int j) {
+
+		long x = alX[i]; alX[i] = alX[j]; alX[j] = x;
+		long y = alY[i]; alY[i] = alY[j]; alY[j] = y;
+		int id = aiIds[i]; aiIds[i] = aiIds[j]; aiIds[j] = id;
+	}
+
+	public int size() {
+
+		return n;
+	}
+
+	/**
+	 * @return The ID of the location nearest to (x, y), or -1 if the tree is empty.
+	 */
+	public int nearest(long x, long y) {
+
+		int[] aiResult = new int[1];
+		return kNearest(x, y, 1, aiResult) == 0 ? -1 : aiResult[0];
+	}
+
+	/**
+	 * Finds the k locations nearest to (x, y).
+	 *
+	 * @param aiResult Receives the location IDs, nearest first; must have room for k IDs.
+	 * @return The number of IDs written, which is min(k, size()).
+	 */
+	public int kNearest(long x, long y, int k, int[] aiResult) {
+
+		return new KNearestSearch(k).search(x, y, 0, n, null, aiResult);
+	}
+
+	/**
+	 * Finds the k locations nearest to (x, y) among those inside the box [minX, maxX] x [minY, maxY],
+	 * for example one quadrant around (x, y).
+	 *
+	 * @param aiResult Receives the location IDs, nearest first; must have room for k IDs.
+	 * @return The number of IDs written.
+	 */
+	public int kNearestInBox(long x, long y, long minX, long minY, long maxX, long maxY, int k, int[] aiResult) {
+
+		KNearestSearch search = new KNearestSearch(k);
+		search.setBox(minX, minY, maxX, maxY);
+		return search.search(x, y, 0, n, null, aiResult);
+	}
+
+	/**
+	 * Passes the ID of every location within <code>radius</code> of (x, y) to <code>consumer</code>.
+	 */
+	public void withinRadius(long x, long y, double radius, IntConsumer consumer) {
+
+		withinRadius(x, y, radius * radius, 0, n, consumer);
+	}
+
+	private void withinRadius(long x, long y, double dRadiusSquared, int lo, int hi, IntConsumer consumer) {
+
+		if(lo >= hi) {
+			return;
+		}
+
+		int mid = (lo + hi) >>> 1;
+		long dx = alX[mid] - x, dy = alY[mid] - y;
+		if(dx * dx + dy * dy <= dRadiusSquared) {
+			consumer.accept(aiIds[mid]);
+		}
+
+		long diff = abSplitsOnX[mid] ? x - alX[mid] : y - alY[mid];
+		if(diff <= 0 || diff * diff <= dRadiusSquared) {
+			withinRadius(x, y, dRadiusSquared, lo, mid, consumer);
+		}
+		if(diff >= 0 || diff * diff <= dRadiusSquared) {
+			withinRadius(x, y, dRadiusSquared, mid + 1, hi, consumer);
+		}
+	}
+
+	/**
+	 * @return A new search over all locations of this tree in which locations can be deleted.
+	 */
+	public DeletionSearch newDeletionSearch() {
+
+		return new DeletionSearch();
+	}
+
+	/**
+	 * Bounded max-heap of the best k candidates found so far, ordered by squared distance.
+	 */
+	private class KNearestSearch {
+
+		private final int k;
+
+		private final int[] aiHeapIds;
+
+		private final long[] alHeapDistances;
+
+		private int size = 0;
+
+		// only locations inside this box are reported
+		private long minX = Long.MIN_VALUE, minY = Long.MIN_VALUE, maxX = Long.MAX_VALUE, maxY = Long.MAX_VALUE;
+
+		KNearestSearch(int k) {
+
+			this.k = k;
+			this.aiHeapIds = new int[k];
+			this.alHeapDistances = new long[k];
+		}
+
+		void setBox(long minX, long minY, long maxX, long maxY) {
+
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+		}
+
+		int search(long x, long y, int lo, int hi, int[] aiAlive, int[] aiResult) {
+
+			if(k > 0) {
+				visit(x, y, lo, hi, aiAlive);
+			}
+
+			// pop the heap so that the nearest ends up first
+			int count = size;
+			for(int i = count - 1; i >= 0; i--) {
+				aiResult[i] = aiHeapIds[0];
+				pop();
+			}
+			return count;
+		}
+
+		private void visit(long x, long y, int lo, int hi, int[] aiAlive) {
+
+			if(lo >= hi) {
+				return;
+			}
+
+			int mid = (lo + hi) >>> 1;
+			if(aiAlive != null && aiAlive[mid] == 0) {
+				return;
+			}
+
+			boolean bInBox = alX[mid] >= minX && alX[mid] <= maxX && alY[mid] >= minY && alY[mid] <= maxY;
+			if(bInBox && (aiAlive == null || aiAlive[mid] > subtreeAliveCount(lo, mid, hi, aiAlive))) {
+				long dx = alX[mid] - x, dy = alY[mid] - y;
+				offer(aiIds[mid], dx * dx + dy * dy);
+			}
+
+			// the left subtree only holds coordinates <= split and the right subtree >= split
+			long split = abSplitsOnX[mid] ? alX[mid] : alY[mid];
+			boolean bLeftInBox = split >= (abSplitsOnX[mid] ? minX : minY);
+			boolean bRightInBox = split <= (abSplitsOnX[mid] ? maxX : maxY);
+
+			long diff = abSplitsOnX[mid] ? x - alX[mid] : y - alY[mid];
+			boolean bNearIsLeft = diff <= 0;
+
+			if(bNearIsLeft ? bLeftInBox : bRightInBox) {
+				visit(x, y, bNearIsLeft ? lo : mid + 1, bNearIsLeft ? mid : hi, aiAlive);
+			}
+			if((bNearIsLeft ? bRightInBox : bLeftInBox) && (size < k || diff * diff < alHeapDistances[0])) {
+				visit(x, y, bNearIsLeft ? mid + 1 : lo, bNearIsLeft ? hi : mid, aiAlive);
+			}
+		}
+
+		private void offer(int id, long distance) {
+
+			if(size < k) {
+				int i = size++;
+				aiHeapIds[i] = id;
+				alHeapDistances[i] = distance;
+				siftUp(i);
+			} else if(distance < alHeapDistances[0]) {
+				aiHeapIds[0] = id;
+				alHeapDistances[0] = distance;
+				siftDown(0);
+			}
+		}
+
+		private void pop() {
+
+			size--;
+			aiHeapIds[0] = aiHeapIds[size];
+			alHeapDistances[0] = alHeapDistances[size];
+			siftDown(0);
+		}
+
+		private void siftUp(int i) {
+
+			while(i > 0) {
+				int parent = (i - 1) / 2;
+				if(alHeapDistances[parent] >= alHeapDistances[i]) {
+					return;
+				}
+				swapHeap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+
+			while(true) {
+				int largest = i, left = 2 * i + 1, right = left + 1;
+				if(left < size && alHeapDistances[left] > alHeapDistances[largest]) largest = left;
+				if(right < size && alHeapDistances[right] > alHeapDistances[largest]) largest = right;
+				if(largest == i) {
+					return;
+				}
+				swapHeap(i, largest);
+				i = largest;
+			}
+		}
+
+		private void swapHeap(int i, int j) {
+
+			int id = aiHeapIds[i]; aiHeapIds[i] = aiHeapIds[j]; aiHeapIds[j] = id;
+			long d = alHeapDistances[i]; alHeapDistances[i] = alHeapDistances[j]; alHeapDistances[j] = d;
+		}
+	}
+
+	/**
+	 * Alive count of the node at <code>mid</code> excluding the node itself, i.e. of its two subtrees.
+	 */
+	private static int subtreeAliveCount(int lo, int mid, int hi, int[] aiAlive) {
+
+		int count = 0;
+		if(lo < mid) {
+			count += aiAlive[(lo + mid) >>> 1];
+		}
+		if(mid + 1 < hi) {
+			count += aiAlive[(mid + 1 + hi) >>> 1];
+		}
+		return count;
+	}
+
+	/**
+	 * Nearest neighbour queries over a shrinking set of locations, such as "nearest unvisited location"
+	 * during construction. Each search holds O(n) state of its own and is not thread-safe; use one per thread.
+	 */
+	public class DeletionSearch {
+
+		// number of alive locations in the subtree rooted at each node position
+		private final int[] aiAlive = new int[n];
+
+		private int iRemaining = n;
+
+		private DeletionSearch() {
+
+			initialiseCounts(0, n);
+		}
+
+		private int initialiseCounts(int lo, int hi) {
+
+			if(lo >= hi) {
+				return 0;
+			}
+			int mid = (lo + hi) >>> 1;
+			aiAlive[mid] = 1 + initialiseCounts(lo, mid) + initialiseCounts(mid + 1, hi);
+			return aiAlive[mid];
+		}
+
+		/**
+		 * Deletes a location in O(log n). Deleting a location twice has no effect.
+		 */
+		public void remove(int id) {
+
+			if(!contains(id)) {
+				return;
+			}
+
+			int position = aiPositions[id];
+			int lo = 0, hi = n;
+			while(true) {
+				int mid = (lo + hi) >>> 1;
+				aiAlive[mid]--;
+				if(position == mid) {
+					break;
+				} else if(position < mid) {
+					hi = mid;
+				} else {
+					lo = mid + 1;
+				}
+			}
+			iRemaining--;
+		}
+
+		/**
+		 * @return Whether the location has not been deleted.
+		 */
+		public boolean contains(int id) {
+
+			int position = aiPositions[id];
+			int lo = 0, hi = n;
+			while(true) {
+				int mid = (lo + hi) >>> 1;
+				if(position == mid) {
+					return aiAlive[mid] > subtreeAliveCount(lo, mid, hi, aiAlive);
+				} else if(position < mid) {
+					hi = mid;
+				} else {
+					lo = mid + 1;
+				}
+			}
+		}
+
+		public int remaining() {
+
+			return iRemaining;
+		}
+
+		/**
+		 * @return The ID of the alive location nearest to (x, y), or -1 if every location has been deleted.
+		 */
+		public int nearest(long x, long y) {
+
+			int[] aiResult = new int[1];
+			return kNearest(x, y, 1, aiResult) == 0 ? -1 : aiResult[0];
+		}
+
+		/**
+		 * Finds the k alive locations nearest to (x, y).
+		 *
+		 * @param aiResult Receives the location IDs, nearest first; must have room for k IDs.
+		 * @return The number of IDs written, which is min(k, remaining()).
+		 */
+		public int kNearest(long x, long y, int k, int[] aiResult) {
+
+			return new KNearestSearch(k).search(x, y, 0, n, aiAlive, aiResult);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.aim.project.ssp.instance;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * An explicit, possibly asymmetric, integer cost matrix that is memory-mapped from file rather than
+ * loaded onto the heap, so that very large matrices cost page cache instead of GC pressure.
+ *
+ * The file consists of a 12-byte header followed by the matrix in row-major order, with every value
+ * stored as a big-endian 32-bit integer:
+ * <pre>
+ *     MAGIC (0x5353504D, "SSPM") | dimension | flags | c(0,0) c(0,1) ... c(dimension-1,dimension-1)
+ * </pre>
+ * Index 0 is the HOTEL, indices 1..n are the sightseeing locations 0..n-1 and index n+1 is the AIRPORT.
+ * Bit 0 of the flags is set when the matrix is symmetric.
+ */
+public class MappedDistanceMatrix {
+
+	public static final int MAGIC = 0x5353504D;
+
+	public static final int FLAG_SYMMETRIC = 1;
+
+	private static final int HEADER_BYTES = 12;
+
+	private final int iDimension;
+
+	private final boolean bSymmetric;
+
+	private final int iRowsPerChunk;
+
+	private final IntBuffer[] aoChunks;
+
+	private MappedDistanceMatrix(int iDimension, boolean bSymmetric, int iRowsPerChunk, IntBuffer[] aoChunks) {
+
+		this.iDimension = iDimension;
+		this.bSymmetric = bSymmetric;
+		this.iRowsPerChunk = iRowsPerChunk;
+		this.aoChunks = aoChunks;
+	}
+
+	/**
+	 * Maps a matrix file into memory. Matrices larger than 2GB are mapped as several chunks of whole rows.
+	 *
+	 * @param path The path to the matrix file.
+	 * @return The mapped matrix.
+	 * @throws IOException If the file cannot be read or is not a valid matrix file.
+	 */
+	public static MappedDistanceMatrix open(Path path) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+			IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).asIntBuffer();
+			if(header.get(0) != MAGIC) {
+				throw new IOException("Not a distance matrix file: " + path);
+			}
+
+			int iDimension = header.get(1);
+			boolean bSymmetric = (header.get(2) & FLAG_SYMMETRIC) != 0;
+			long lRowBytes = (long) iDimension * Integer.BYTES;
+			if(channel.size() < HEADER_BYTES + lRowBytes * iDimension) {
+				throw new IOException("Truncated distance matrix file: " + path);
+			}
+
+			int iRowsPerChunk = (int) Math.max(1, Integer.MAX_VALUE / lRowBytes);
+			int iNumberOfChunks = (iDimension + iRowsPerChunk - 1) / iRowsPerChunk;
+			IntBuffer[] aoChunks = new IntBuffer[iNumberOfChunks];
+
+			for(int c = 0; c < iNumberOfChunks; c++) {
+				int iRows = Math.min(iRowsPerChunk, iDimension - c * iRowsPerChunk);
+				long lOffset = HEADER_BYTES + c * iRowsPerChunk * lRowBytes;
+				aoChunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, lOffset, iRows * lRowBytes).asIntBuffer();
+			}
+
+			// the mapping remains valid after the channel is closed
+			return new MappedDistanceMatrix(iDimension, bSymmetric, iRowsPerChunk, aoChunks);
+		}
+	}
+
+	/**
+	 * Writes a matrix file, streaming the values so that the matrix never needs to be held in memory.
+	 *
+	 * @param path The path to write to.
+	 * @param iDimension The number of rows (and columns) of the matrix.
+	 * @param bSymmetric Whether c(i,j) == c(j,i) for all i and j.
+	 * @param cost Supplies the cost c(i,j) of each entry.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(Path path, int iDimension, boolean bSymmetric, IntBinaryOperator cost) throws IOException {
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(iDimension);
+			out.writeInt(bSymmetric ? FLAG_SYMMETRIC : 0);
+			for(int i = 0; i < iDimension; i++) {
+				for(int j = 0; j < iDimension; j++) {
+					out.writeInt(cost.applyAsInt(i, j));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param iFrom Row index.
+	 * @param iTo Column index.
+	 * @return The cost of travelling from <code>iFrom</code> to <code>iTo</code>.
+	 */
+	public int get(int iFrom, int iTo) {
+
+		return aoChunks[iFrom / iRowsPerChunk].get((iFrom % iRowsPerChunk) * iDimension + iTo);
+	}
+
+	public int getDimension() {
+
+		return iDimension;
+	}
+
+	public boolean isSymmetric() {
+
+		return bSymmetric;
+	}
+}
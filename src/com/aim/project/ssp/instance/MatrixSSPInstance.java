@@ -0,0 +1,45 @@
+package com.aim.project.ssp.instance;
+
+import java.util.Random;
+
+import com.aim.project.ssp.MatrixObjectiveFunction;
+
+/**
+ * An SSP instance whose travel costs come from an explicit, memory-mapped distance matrix rather than
+ * from the Euclidean distance between locations. The coordinates are still used for visualisation
+ * and for the instance features.
+ */
+public class MatrixSSPInstance extends SSPInstance {
+
+	private final MappedDistanceMatrix oMatrix;
+
+	private MatrixSSPInstance(int iNumberOfLocations, Location[] aoLocations, Location oHotelLocation,
+							  Location oAirportLocation, MappedDistanceMatrix oMatrix, Random random) {
+
+		super(iNumberOfLocations, aoLocations, oHotelLocation, oAirportLocation, random);
+
+		if(oMatrix.getDimension() != iNumberOfLocations + 2) {
+			throw new IllegalArgumentException("Distance matrix dimension " + oMatrix.getDimension()
+					+ " does not match " + iNumberOfLocations + " locations plus the HOTEL and AIRPORT");
+		}
+
+		this.oMatrix = oMatrix;
+	}
+
+	/**
+	 * Creates the instance and its matrix-backed objective function, which needs the fully constructed instance.
+	 */
+	public static MatrixSSPInstance create(int iNumberOfLocations, Location[] aoLocations, Location oHotelLocation,
+										   Location oAirportLocation, MappedDistanceMatrix oMatrix, Random random) {
+
+		MatrixSSPInstance oInstance = new MatrixSSPInstance(iNumberOfLocations, aoLocations, oHotelLocation,
+				oAirportLocation, oMatrix, random);
+		oInstance.setSSPObjectiveFunction(new MatrixObjectiveFunction(oInstance, oMatrix));
+		return oInstance;
+	}
+
+	public MappedDistanceMatrix getDistanceMatrix() {
+
+		return oMatrix;
+	}
+}
@@ -0,0 +1,95 @@
+package com.aim.project.ssp.instance;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+/**
+ * An SSP instance produced by preprocessing another instance. Each location the search works on
+ * stands for one or more locations of the original instance, stored in compressed form: the
+ * original IDs of location <code>i</code> are <code>aiMembers[aiMemberOffsets[i] .. aiMemberOffsets[i + 1] - 1]</code>.
+ *
+ * Solutions are expressed over the remapped IDs, and are expanded back to the original locations
+ * whenever they are turned into a list of locations for printing or visualisation.
+ */
+public class RemappedSSPInstance extends SSPInstance {
+
+	private final Location[] aoOriginalLocations;
+
+	private final int[] aiMemberOffsets;
+
+	private final int[] aiMembers;
+
+	public RemappedSSPInstance(Location[] aoRemappedLocations, Location[] aoOriginalLocations, int[] aiMemberOffsets,
+							   int[] aiMembers, Location oHotelLocation, Location oAirportLocation, Random random) {
+
+		super(aoRemappedLocations.length, aoRemappedLocations, oHotelLocation, oAirportLocation, random);
+		this.aoOriginalLocations = aoOriginalLocations;
+		this.aiMemberOffsets = aiMemberOffsets;
+		this.aiMembers = aiMembers;
+	}
+
+	/**
+	 * @return The number of sightseeing locations in the original (unprocessed) instance.
+	 */
+	public int getOriginalNumberOfLocations() {
+
+		return aoOriginalLocations.length;
+	}
+
+	Location[] getOriginalLocations() {
+
+		return aoOriginalLocations;
+	}
+
+	int[] getMemberOffsets() {
+
+		return aiMemberOffsets;
+	}
+
+	int[] getMembers() {
+
+		return aiMembers;
+	}
+
+	/**
+	 * Expands a solution over the remapped IDs into the equivalent ordering of original location IDs.
+	 *
+	 * @param oSolution A solution to this (remapped) instance.
+	 * @return The original location IDs in visiting order.
+	 */
+	public int[] getOriginalLocationIds(SSPSolutionInterface oSolution) {
+
+		int[] aiRepresentation = oSolution.getSolutionRepresentation().getSolutionRepresentation();
+		int[] aiOriginalIds = new int[aoOriginalLocations.length];
+
+		int iPosition = 0;
+		for(int iLocation : aiRepresentation) {
+			for(int m = aiMemberOffsets[iLocation]; m < aiMemberOffsets[iLocation + 1]; m++) {
+				aiOriginalIds[iPosition++] = aiMembers[m];
+			}
+		}
+
+		return aiOriginalIds;
+	}
+
+	@Override
+	public ArrayList<Location> getSolutionAsListOfLocations(SSPSolutionInterface oSolution) {
+
+		ArrayList<Location> locationList = new ArrayList<>(aoOriginalLocations.length + 2);
+
+		// Add the hotel as the starting point
+		locationList.add(getHotelLocation());
+
+		// Expand each remapped location into the original locations it stands for
+		for(int iOriginalId : getOriginalLocationIds(oSolution)) {
+			locationList.add(aoOriginalLocations[iOriginalId]);
+		}
+
+		// Add the airport as the ending point
+		locationList.add(getAirportLocation());
+
+		return locationList;
+	}
+}
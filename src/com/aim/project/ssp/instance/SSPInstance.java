@@ -17,6 +17,12 @@ import com.aim.project.ssp.solution.SolutionRepresentation;
  */
 public class SSPInstance implements SSPInstanceInterface {
 
+	// number of nearest unvisited locations considered by each step of the GRASP construction
+	private static final int GRASP_CANDIDATES = 5;
+
+	// of those, the restricted candidate list keeps the ones within this fraction of the cost range
+	private static final double GRASP_ALPHA = 0.3;
+
 	private final Location[] aoLocations;
 
 	private final Location oHotelLocation;
@@ -29,6 +35,18 @@ public class SSPInstance implements SSPInstanceInterface {
 
 	private ObjectiveFunctionInterface f;
 
+	// computed on first use, as instances wrapped by preprocessing stages never need their own
+	private volatile InstanceFeatures oFeatures;
+
+	private Thread oPrecomputationThread;
+
+	private volatile boolean bPrecomputationComplete = false;
+
+	// built on first use, or by the precomputation thread
+	private volatile KDTree oSpatialIndex;
+
+	private volatile CandidateGraph oCandidateGraph;
+
 	public SSPInstance(int iNumberOfLocations, Location[] aoLocations, Location oHotelLocation, Location oAirportLocation, Random random) {
 
 		this.iNumberOfLocations = iNumberOfLocations;
@@ -41,6 +59,12 @@ public class SSPInstance implements SSPInstanceInterface {
 
 	@Override
 	public SSPSolution createSolution(InitialisationMode mode) {
+
+		return createSolution(mode, oRandom);
+	}
+
+	@Override
+	public SSPSolution createSolution(InitialisationMode mode, Random random) {
 		// Initialize the solution representation based on the mode
 		int[] representation = new int[iNumberOfLocations];
 
@@ -54,7 +78,7 @@ public class SSPInstance implements SSPInstanceInterface {
 
 			// Then, shuffle the array using Fisher-Yates algorithm
 			for(int i = iNumberOfLocations - 1; i > 0; i--) {
-				int j = oRandom.nextInt(i + 1);
+				int j = random.nextInt(i + 1);
 				// Swap elements at i and j
 				int temp = representation[i];
 				representation[i] = representation[j];
@@ -64,73 +88,325 @@ public class SSPInstance implements SSPInstanceInterface {
 		}
 		else if(mode == InitialisationMode.CONSTRUCTIVE) {
 			// Use nearest neighbor greedy algorithm
+			if(hasEuclideanCosts()) {
+				buildNearestNeighbourTourWithSpatialIndex(representation);
+			} else {
+				buildNearestNeighbourTourByScan(representation);
+			}
+		}
+		else if(mode == InitialisationMode.SPACE_FILLING_CURVE) {
+			// Order the locations along a Hilbert curve, oriented between the hotel and the airport
+			buildSpaceFillingCurveTour(representation);
+		}
+		else if(mode == InitialisationMode.GREEDY_EDGE) {
+			// Add the cheapest candidate edges that keep a set of paths, then join the paths up
+			new GreedyEdgeConstruction(aoLocations, oHotelLocation, f, getCandidateGraph()).build(representation);
+		}
+		else if(mode == InitialisationMode.GRASP) {
+			// Randomised nearest neighbour: each step picks one of the few nearest unvisited locations
+			if(hasEuclideanCosts()) {
+				buildGraspTourWithSpatialIndex(representation, random);
+			} else {
+				buildGraspTourByScan(representation, random);
+			}
+		}
+		else if(mode == InitialisationMode.CLUSTER_FIRST) {
+			// Cluster the locations, order the clusters, then route within each cluster in parallel
+			new ClusterFirstConstruction(aoLocations, oHotelLocation, oAirportLocation, f, hasEuclideanCosts())
+					.build(representation, random);
+		}
 
-			// Keep track of which locations have been visited
-			boolean[] visited = new boolean[iNumberOfLocations];
+		// Create the solution representation
+		SolutionRepresentation solutionRep = new SolutionRepresentation(representation);
 
-			// Start from the hotel
-			Location currentLocation = oHotelLocation;
+		// Build the SSPSolution
+		SSPSolution solution = new SSPSolution(solutionRep, 0);
 
-			// Build the route one location at a time
-			for(int i = 0; i < iNumberOfLocations; i++) {
-				// Find the nearest unvisited location
-				int nearestLocationIndex = -1;
-				double minDistance = Double.MAX_VALUE;
-
-				for(int j = 0; j < iNumberOfLocations; j++) {
-					if(!visited[j]) {
-						double distance = calculateDistance(currentLocation, aoLocations[j]);
-						if(distance < minDistance) {
-							minDistance = distance;
-							nearestLocationIndex = j;
-						}
+		// Evaluate and set the true objective value
+		int cost = f.getObjectiveFunctionValue(solutionRep);
+		solution.setObjectiveFunctionValue(cost);
+
+		return solution;
+	}
+
+	/**
+	 * Nearest neighbour construction in O(n log n) using "nearest unvisited" queries on the spatial index.
+	 * Only valid when costs are Euclidean distances between the coordinates.
+	 */
+	private void buildNearestNeighbourTourWithSpatialIndex(int[] representation) {
+
+		KDTree.DeletionSearch unvisited = getSpatialIndex().newDeletionSearch();
+
+		// Build the route one location at a time, starting from the hotel
+		Location currentLocation = oHotelLocation;
+		for(int i = 0; i < iNumberOfLocations; i++) {
+			int nearestLocationIndex = unvisited.nearest(currentLocation.x(), currentLocation.y());
+			representation[i] = nearestLocationIndex;
+			unvisited.remove(nearestLocationIndex);
+			currentLocation = aoLocations[nearestLocationIndex];
+		}
+	}
+
+	/**
+	 * Nearest neighbour construction in O(n^2) through the objective function's cost methods,
+	 * for instances whose costs do not follow from the coordinates.
+	 */
+	private void buildNearestNeighbourTourByScan(int[] representation) {
+
+		// Keep track of which locations have been visited
+		boolean[] visited = new boolean[iNumberOfLocations];
+
+		// Build the route one location at a time, starting from the hotel
+		int currentLocation = -1;
+		for(int i = 0; i < iNumberOfLocations; i++) {
+			// Find the nearest unvisited location
+			int nearestLocationIndex = -1;
+			int minDistance = Integer.MAX_VALUE;
+
+			for(int j = 0; j < iNumberOfLocations; j++) {
+				if(!visited[j]) {
+					int distance = currentLocation == -1 ? f.getCostBetweenHotelAnd(j) : f.getCost(currentLocation, j);
+					if(distance < minDistance) {
+						minDistance = distance;
+						nearestLocationIndex = j;
 					}
 				}
+			}
 
-				// Add the nearest location to the route
-				representation[i] = nearestLocationIndex;
-				visited[nearestLocationIndex] = true;
-				currentLocation = aoLocations[nearestLocationIndex];
+			// Add the nearest location to the route
+			representation[i] = nearestLocationIndex;
+			visited[nearestLocationIndex] = true;
+			currentLocation = nearestLocationIndex;
+		}
+	}
+
+	/**
+	 * GRASP construction in O(n log n): like the nearest neighbour construction, but each step moves to a
+	 * random location from the restricted candidate list, i.e. the nearest unvisited locations whose cost
+	 * is within GRASP_ALPHA of the cost range of the GRASP_CANDIDATES nearest.
+	 */
+	private void buildGraspTourWithSpatialIndex(int[] representation, Random random) {
+
+		KDTree.DeletionSearch unvisited = getSpatialIndex().newDeletionSearch();
+		int[] candidates = new int[GRASP_CANDIDATES];
+		int[] costs = new int[GRASP_CANDIDATES];
+
+		int currentLocation = -1;
+		for(int i = 0; i < iNumberOfLocations; i++) {
+			Location current = currentLocation == -1 ? oHotelLocation : aoLocations[currentLocation];
+			int count = unvisited.kNearest(current.x(), current.y(), GRASP_CANDIDATES, candidates);
+			for(int c = 0; c < count; c++) {
+				costs[c] = currentLocation == -1 ? f.getCostBetweenHotelAnd(candidates[c]) : f.getCost(currentLocation, candidates[c]);
 			}
 
-			// Build solution object
-			SolutionRepresentation solutionRep = new SolutionRepresentation(representation);
-			SSPSolution solution = new SSPSolution(solutionRep, 0);
+			int chosenLocationIndex = candidates[chooseRestrictedCandidate(costs, count, random)];
+			representation[i] = chosenLocationIndex;
+			unvisited.remove(chosenLocationIndex);
+			currentLocation = chosenLocationIndex;
+		}
+	}
 
-			// Evaluate and set correct objective value
-			int cost = f.getObjectiveFunctionValue(solutionRep);
-			solution.setObjectiveFunctionValue(cost);
+	/**
+	 * GRASP construction in O(n^2) through the objective function's cost methods, for instances whose
+	 * costs do not follow from the coordinates.
+	 */
+	private void buildGraspTourByScan(int[] representation, Random random) {
+
+		boolean[] visited = new boolean[iNumberOfLocations];
+
+		// packed (cost, id) keys of the cheapest unvisited locations, kept sorted
+		long[] candidates = new long[GRASP_CANDIDATES];
+		int[] costs = new int[GRASP_CANDIDATES];
+
+		int currentLocation = -1;
+		for(int i = 0; i < iNumberOfLocations; i++) {
+			int count = 0;
+			for(int j = 0; j < iNumberOfLocations; j++) {
+				if(!visited[j]) {
+					int distance = currentLocation == -1 ? f.getCostBetweenHotelAnd(j) : f.getCost(currentLocation, j);
+					long key = ((long) distance << 32) | j;
+					if(count < GRASP_CANDIDATES || key < candidates[GRASP_CANDIDATES - 1]) {
+						int p = count < GRASP_CANDIDATES ? count++ : GRASP_CANDIDATES - 1;
+						while(p > 0 && candidates[p - 1] > key) {
+							candidates[p] = candidates[p - 1];
+							p--;
+						}
+						candidates[p] = key;
+					}
+				}
+			}
+			for(int c = 0; c < count; c++) {
+				costs[c] = (int) (candidates[c] >>> 32);
+			}
 
-			return solution;
+			int chosenLocationIndex = (int) candidates[chooseRestrictedCandidate(costs, count, random)];
+			representation[i] = chosenLocationIndex;
+			visited[chosenLocationIndex] = true;
+			currentLocation = chosenLocationIndex;
 		}
+	}
 
-		// Create the solution representation
-		SolutionRepresentation solutionRep = new SolutionRepresentation(representation);
+	/**
+	 * @param costs The costs of the candidates, cheapest first.
+	 * @return The index of a candidate chosen uniformly from those within GRASP_ALPHA of the cost range.
+	 */
+	private static int chooseRestrictedCandidate(int[] costs, int count, Random random) {
 
-		// Build the SSPSolution
-		SSPSolution solution = new SSPSolution(solutionRep, 0);
+		double threshold = costs[0] + GRASP_ALPHA * (costs[count - 1] - costs[0]);
+		int restricted = 1;
+		while(restricted < count && costs[restricted] <= threshold) {
+			restricted++;
+		}
+		return random.nextInt(restricted);
+	}
 
-		// Evaluate and set the true objective value
-		int cost = f.getObjectiveFunctionValue(solutionRep);
-		solution.setObjectiveFunctionValue(cost);
+	/**
+	 * Space-filling curve construction in O(n log n): the Hilbert curve order is treated as a cycle, which
+	 * is cut and oriented where connecting it to the hotel and the airport is cheapest.
+	 */
+	private void buildSpaceFillingCurveTour(int[] representation) {
 
-		return solution;
+		int n = iNumberOfLocations;
+		int[] order = HilbertCurve.order(aoLocations);
+
+		// cost of the closed cycle in both directions
+		long forwardCycle = 0, reverseCycle = 0;
+		for(int i = 0; i < n; i++) {
+			int next = order[(i + 1) % n];
+			forwardCycle += f.getCost(order[i], next);
+			reverseCycle += f.getCost(next, order[i]);
+		}
+
+		// find the cut (between positions c - 1 and c) and direction giving the cheapest path
+		long bestCost = Long.MAX_VALUE;
+		int bestCut = 0;
+		boolean bestReversed = false;
+		for(int c = 0; c < n; c++) {
+			int first = order[c];
+			int last = order[(c + n - 1) % n];
+
+			long forward = forwardCycle - f.getCost(last, first) + f.getCostBetweenHotelAnd(first) + f.getCostBetweenAirportAnd(last);
+			if(forward < bestCost) {
+				bestCost = forward;
+				bestCut = c;
+				bestReversed = false;
+			}
+
+			long reverse = reverseCycle - f.getCost(first, last) + f.getCostBetweenHotelAnd(last) + f.getCostBetweenAirportAnd(first);
+			if(reverse < bestCost) {
+				bestCost = reverse;
+				bestCut = c;
+				bestReversed = true;
+			}
+		}
+
+		for(int i = 0; i < n; i++) {
+			representation[i] = bestReversed
+					? order[(bestCut - 1 - i + 2 * n) % n]
+					: order[(bestCut + i) % n];
+		}
 	}
 
 	/**
-	 * Calculate the Euclidean distance between two locations
+	 * @return true if travel costs are the (ceil-rounded) Euclidean distances between the coordinates,
+	 * so that spatial queries on the coordinates agree with the costs.
 	 */
-	private double calculateDistance(Location loc1, Location loc2) {
-		double dx = loc1.x() - loc2.x();
-		double dy = loc1.y() - loc2.y();
-		return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+	protected boolean hasEuclideanCosts() {
+		return f instanceof SSPObjectiveFunction;
 	}
-	
+
+	@Override
+	public KDTree getSpatialIndex() {
+
+		KDTree index = oSpatialIndex;
+		if(index == null) {
+			synchronized(this) {
+				index = oSpatialIndex;
+				if(index == null) {
+					index = new KDTree(aoLocations);
+					oSpatialIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	@Override
+	public CandidateGraph getCandidateGraph() {
+
+		CandidateGraph graph = oCandidateGraph;
+		if(graph == null) {
+			synchronized(this) {
+				graph = oCandidateGraph;
+				if(graph == null) {
+					graph = hasEuclideanCosts()
+							? CandidateGraph.quadrantNeighbours(aoLocations, getSpatialIndex(), f)
+							: CandidateGraph.cheapestNeighbours(iNumberOfLocations, f);
+					oCandidateGraph = graph;
+				}
+			}
+		}
+		return graph;
+	}
+
 	@Override
 	public ObjectiveFunctionInterface getSSPObjectiveFunction() {
 		return f;
 	}
 
+	/**
+	 * Replaces the Euclidean objective function, for instances whose costs come from elsewhere.
+	 */
+	protected void setSSPObjectiveFunction(ObjectiveFunctionInterface f) {
+		this.f = f;
+	}
+
+	@Override
+	public synchronized void startPrecomputation() {
+
+		if(oPrecomputationThread == null) {
+			oPrecomputationThread = new Thread(this::precompute, "SSP precomputation");
+			oPrecomputationThread.setDaemon(true);
+			oPrecomputationThread.start();
+		}
+	}
+
+	/**
+	 * Builds the precomputed structures of this instance. Runs on the precomputation thread while the
+	 * search may already be using the instance, so everything built here must be published safely.
+	 */
+	protected void precompute() {
+
+		if(f instanceof SSPObjectiveFunction oEuclidean) {
+			oEuclidean.precomputeDistanceTables();
+		}
+		getSpatialIndex();
+		getCandidateGraph();
+
+		bPrecomputationComplete = true;
+	}
+
+	@Override
+	public boolean isPrecomputationComplete() {
+		return bPrecomputationComplete;
+	}
+
+	@Override
+	public InstanceFeatures getInstanceFeatures() {
+
+		InstanceFeatures features = oFeatures;
+		if(features == null) {
+			synchronized(this) {
+				features = oFeatures;
+				if(features == null) {
+					features = InstanceFeatures.of(aoLocations, oHotelLocation, oAirportLocation);
+					oFeatures = features;
+				}
+			}
+		}
+		return features;
+	}
+
 	@Override
 	public int getNumberOfLocations() {
 		return iNumberOfLocations;
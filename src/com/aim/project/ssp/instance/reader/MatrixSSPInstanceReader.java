@@ -0,0 +1,54 @@
+package com.aim.project.ssp.instance.reader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.MappedDistanceMatrix;
+import com.aim.project.ssp.instance.MatrixSSPInstance;
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+import com.aim.project.ssp.interfaces.SSPInstanceReaderInterface;
+
+/**
+ * Reads an SSP instance whose costs come from an explicit distance matrix. The locations are read
+ * from the usual <code>.ssp</code> file and the costs are memory-mapped from the matrix file with
+ * the same name and the <code>.sspm</code> extension (see {@link MappedDistanceMatrix} for the format).
+ */
+public class MatrixSSPInstanceReader implements SSPInstanceReaderInterface {
+
+	public static final String MATRIX_EXTENSION = ".sspm";
+
+	/**
+	 * @param path The path to the <code>.ssp</code> instance file.
+	 * @return The path of the distance matrix file belonging to the instance at <code>path</code>.
+	 */
+	public static Path getMatrixPath(Path path) {
+
+		String filename = path.getFileName().toString();
+		int extension = filename.lastIndexOf('.');
+		String basename = extension == -1 ? filename : filename.substring(0, extension);
+		return path.resolveSibling(basename + MATRIX_EXTENSION);
+	}
+
+	@Override
+	public SSPInstanceInterface readSSPInstance(Path path, Random random) {
+
+		SSPInstanceInterface oCoordinates = new SSPInstanceReader().readSSPInstance(path, random);
+
+		int n = oCoordinates.getNumberOfLocations();
+		Location[] aoLocations = new Location[n];
+		for(int i = 0; i < n; i++) {
+			aoLocations[i] = oCoordinates.getSightseeingLocation(i);
+		}
+
+		try {
+			MappedDistanceMatrix oMatrix = MappedDistanceMatrix.open(getMatrixPath(path));
+			return MatrixSSPInstance.create(n, aoLocations, oCoordinates.getHotelLocation(),
+					oCoordinates.getAirportLocation(), oMatrix, random);
+
+		} catch (IOException e) {
+			throw new RuntimeException("Error reading SSP distance matrix file: " + e.getMessage(), e);
+		}
+	}
+}
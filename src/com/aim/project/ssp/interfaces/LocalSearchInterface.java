@@ -0,0 +1,15 @@
+package com.aim.project.ssp.interfaces;
+
+/**
+ * A local search heuristic that can tell when its last application left the solution at a local optimum
+ * of its neighbourhood, so that applying it again to the unchanged solution could not improve it.
+ */
+public interface LocalSearchInterface extends HeuristicInterface {
+
+	/**
+	 *
+	 * @return Whether the solution passed to the last call of apply is now a local optimum of this heuristic's
+	 * neighbourhood.
+	 */
+	public boolean isLocalOptimumConfirmed();
+}
@@ -35,4 +35,17 @@ public interface ObjectiveFunctionInterface {
 	 * @return The cost of going from the location with ID iLocation to the AIRPORT.
 	 */
 	public int getCostBetweenAirportAnd(int iLocation);
+
+	/**
+	 *
+	 * @return Whether the cost between any two sightseeing locations is the same in both directions,
+	 * so that reversing part of a tour does not change the cost of the reversed part.
+	 */
+	public boolean isSymmetric();
+
+	/**
+	 *
+	 * @return The instance whose costs this objective function computes.
+	 */
+	public SSPInstanceInterface getInstance();
 }
@@ -1,8 +1,12 @@
 package com.aim.project.ssp.interfaces;
 
 import java.util.ArrayList;
+import java.util.Random;
 
+import com.aim.project.ssp.instance.CandidateGraph;
 import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.InstanceFeatures;
+import com.aim.project.ssp.instance.KDTree;
 import com.aim.project.ssp.instance.Location;
 import com.aim.project.ssp.solution.SSPSolution;
 
@@ -16,11 +20,54 @@ public interface SSPInstanceInterface {
 	/**
 	 *
 	 * @param mode Specifies one of the initialisation modes.
-	 * @return A complete solution generated by one of RANDOM or CONSTRUCTIVE initialisation methods.
+	 * @return A complete solution generated by the given initialisation method.
 	 */
 	public SSPSolution createSolution(InitialisationMode mode);
+
+	/**
+	 * Creates a solution drawing all random choices from <code>random</code> instead of the instance's own
+	 * random number generator, so that solutions can be constructed concurrently and reproducibly.
+	 *
+	 * @param mode Specifies one of the initialisation modes.
+	 * @param random The random number generator used by randomised initialisation modes.
+	 * @return A complete solution generated by the given initialisation method.
+	 */
+	public SSPSolution createSolution(InitialisationMode mode, Random random);
 	
 	public ObjectiveFunctionInterface getSSPObjectiveFunction();
+
+	/**
+	 *
+	 * @return The features of this instance, computed once on first use.
+	 */
+	public InstanceFeatures getInstanceFeatures();
+
+	/**
+	 *
+	 * @return A static spatial index over the sightseeing locations, built once per instance, for
+	 * nearest neighbour, k-nearest and radius queries on the coordinates.
+	 */
+	public KDTree getSpatialIndex();
+
+	/**
+	 *
+	 * @return The candidate-edge graph of this instance in CSR layout, built once per instance, so that
+	 * local search operators can restrict their moves to promising edges.
+	 */
+	public CandidateGraph getCandidateGraph();
+
+	/**
+	 * Starts building the precomputed structures of this instance (distance tables, spatial index and
+	 * candidate graph) on a background thread. The instance can be searched straight away; the structures
+	 * are used as soon as they have been published.
+	 */
+	public void startPrecomputation();
+
+	/**
+	 *
+	 * @return true once all precomputed structures have been published.
+	 */
+	public boolean isPrecomputationComplete();
 	
 	public int getNumberOfLocations();
 	
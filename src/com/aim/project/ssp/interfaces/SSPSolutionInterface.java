@@ -1,5 +1,7 @@
 package com.aim.project.ssp.interfaces;
 
+import com.aim.project.ssp.solution.ActiveNodeQueue;
+
 /**
  * @author Warren G. Jackson
  * @since 17/03/2025
@@ -32,6 +34,34 @@ public interface SSPSolutionInterface extends Cloneable {
 	 */
 	public int getNumberOfLocations();
 
+	/**
+	 *
+	 * @param iNeighbourhood One of the neighbourhood constants of ActiveNodeQueue.
+	 * @return The don't-look bits of the neighbourhood, or null if none are attached (every location is active).
+	 */
+	public ActiveNodeQueue getActiveNodeQueue(int iNeighbourhood);
+
+	/**
+	 *
+	 * Attaches the don't-look bits of a local search neighbourhood to this solution.
+	 * @param iNeighbourhood One of the neighbourhood constants of ActiveNodeQueue.
+	 * @param oQueue The queue of active locations.
+	 */
+	public void setActiveNodeQueue(int iNeighbourhood, ActiveNodeQueue oQueue);
+
+	/**
+	 *
+	 * Turns off the don't-look bit of a location in every attached neighbourhood, after a change next to it.
+	 * @param iLocation ID of the location; HOTEL and AIRPORT IDs are ignored.
+	 */
+	public void activateNode(int iLocation);
+
+	/**
+	 *
+	 * Drops all don't-look bits, e.g. after the whole tour was replaced, so that every location is active.
+	 */
+	public void resetActiveNodes();
+
 	/**
 	 * 
 	 * @return A deep clone of the solution.
@@ -28,6 +28,7 @@ public abstract class HH_Runner_Visual {
 		long timeLimit = 150000L;
 		SightseeingProblemDomain problem = new SightseeingProblemDomain(seed);
 		problem.loadInstance(6);
+		System.out.println("Instance features: " + problem.getLoadedInstance().getInstanceFeatures());
 		HyperHeuristic hh = getHyperHeuristic(seed);
 		hh.setTimeLimit(timeLimit);
 		hh.loadProblemDomain(problem);
@@ -38,6 +39,7 @@ public abstract class HH_Runner_Visual {
 
 		System.out.println("f(s_best) = " + hh.getBestSolutionValue());
 		problem.printBestSolutionFound();
+		problem.printTimingStatistics();
 
 		new SSPView(problem.m_oInstance, problem, Color.RED, Color.GREEN);
 	}
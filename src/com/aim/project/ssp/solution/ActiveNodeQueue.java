@@ -0,0 +1,117 @@
+package com.aim.project.ssp.solution;
+
+/**
+ * FIFO queue of the sightseeing locations whose don't-look bit is off, i.e. the locations a local search
+ * still has to look at. Each location is queued at most once; polling a location sets its don't-look bit.
+ *
+ * Queues are kept on the solution, one per local search neighbourhood, so that a local search call after a
+ * small perturbation only looks at the locations the perturbation disturbed.
+ */
+public class ActiveNodeQueue {
+
+	/**
+	 * Neighbourhoods that keep their own don't-look bits on a solution.
+	 */
+	public static final int TWO_OPT = 0;
+
+	public static final int OR_OPT = 1;
+
+	public static final int LIN_KERNIGHAN = 2;
+
+	public static final int NUMBER_OF_NEIGHBOURHOODS = 3;
+
+	// ring buffer of queued location IDs
+	private final int[] aiQueue;
+
+	private final boolean[] abQueued;
+
+	private int iHead = 0;
+
+	private int iSize = 0;
+
+	public ActiveNodeQueue(int iNumberOfLocations) {
+
+		this.aiQueue = new int[iNumberOfLocations];
+		this.abQueued = new boolean[iNumberOfLocations];
+	}
+
+	/**
+	 * Creates a copy of <code>oOther</code> with the same queued locations in the same order.
+	 */
+	public ActiveNodeQueue(ActiveNodeQueue oOther) {
+
+		this.aiQueue = oOther.aiQueue.clone();
+		this.abQueued = oOther.abQueued.clone();
+		this.iHead = oOther.iHead;
+		this.iSize = oOther.iSize;
+	}
+
+	/**
+	 * @return The number of locations this queue can hold.
+	 */
+	public int capacity() {
+
+		return aiQueue.length;
+	}
+
+	/**
+	 * Turns off the don't-look bit of a location. HOTEL, AIRPORT and other negative IDs are ignored.
+	 */
+	public void activate(int iLocation) {
+
+		if(iLocation >= 0 && !abQueued[iLocation]) {
+			abQueued[iLocation] = true;
+			int iTail = iHead + iSize;
+			aiQueue[iTail >= aiQueue.length ? iTail - aiQueue.length : iTail] = iLocation;
+			iSize++;
+		}
+	}
+
+	/**
+	 * Turns off the don't-look bits of all locations, queueing them in tour order.
+	 */
+	public void activateAll(int[] aiTour) {
+
+		clear();
+		for(int iLocation : aiTour) {
+			activate(iLocation);
+		}
+	}
+
+	/**
+	 * @return The next location to look at, or -1 if every don't-look bit is set.
+	 */
+	public int poll() {
+
+		if(iSize == 0) {
+			return -1;
+		}
+
+		int iLocation = aiQueue[iHead];
+		iHead = iHead + 1 == aiQueue.length ? 0 : iHead + 1;
+		iSize--;
+		abQueued[iLocation] = false;
+		return iLocation;
+	}
+
+	public boolean isEmpty() {
+
+		return iSize == 0;
+	}
+
+	public int size() {
+
+		return iSize;
+	}
+
+	/**
+	 * Sets the don't-look bits of all locations.
+	 */
+	public void clear() {
+
+		while(iSize > 0) {
+			poll();
+		}
+		iHead = 0;
+	}
+}
@@ -13,6 +13,9 @@ public class SSPSolution implements SSPSolutionInterface {
 	private SolutionRepresentationInterface oRepresentation;
 	
 	private int iObjectiveFunctionValue;
+
+	// don't-look bits per local search neighbourhood, null until a local search attaches them
+	private ActiveNodeQueue[] aoActiveNodeQueues;
 	
 	public SSPSolution(SolutionRepresentationInterface oRepresentation, int iObjectiveFunctionValue) {
 		
@@ -38,6 +41,39 @@ public class SSPSolution implements SSPSolutionInterface {
 		return this.oRepresentation;
 	}
 	
+	@Override
+	public ActiveNodeQueue getActiveNodeQueue(int iNeighbourhood) {
+
+		return aoActiveNodeQueues == null ? null : aoActiveNodeQueues[iNeighbourhood];
+	}
+
+	@Override
+	public void setActiveNodeQueue(int iNeighbourhood, ActiveNodeQueue oQueue) {
+
+		if(aoActiveNodeQueues == null) {
+			aoActiveNodeQueues = new ActiveNodeQueue[ActiveNodeQueue.NUMBER_OF_NEIGHBOURHOODS];
+		}
+		aoActiveNodeQueues[iNeighbourhood] = oQueue;
+	}
+
+	@Override
+	public void activateNode(int iLocation) {
+
+		if(aoActiveNodeQueues != null) {
+			for(ActiveNodeQueue oQueue : aoActiveNodeQueues) {
+				if(oQueue != null) {
+					oQueue.activate(iLocation);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void resetActiveNodes() {
+
+		aoActiveNodeQueues = null;
+	}
+
 	@Override
 	public SSPSolutionInterface clone() {
 
@@ -48,6 +84,16 @@ public class SSPSolution implements SSPSolutionInterface {
 			// Now perform deep cloning of the mutable fields and clone the solution representation
 			clone.oRepresentation = this.oRepresentation.clone();
 
+			// and copy the don't-look bits, so that the clone's local searches resume where this solution's left off
+			if(this.aoActiveNodeQueues != null) {
+				clone.aoActiveNodeQueues = new ActiveNodeQueue[aoActiveNodeQueues.length];
+				for(int i = 0; i < aoActiveNodeQueues.length; i++) {
+					if(aoActiveNodeQueues[i] != null) {
+						clone.aoActiveNodeQueues[i] = new ActiveNodeQueue(aoActiveNodeQueues[i]);
+					}
+				}
+			}
+
 			return clone;
 		}
 		catch (CloneNotSupportedException e) {
@@ -0,0 +1,73 @@
+package com.aim.project.ssp.test;
+
+import com.aim.project.ssp.instance.CoLocatedLocationCollapser;
+import com.aim.project.ssp.instance.HilbertLocationRenumberer;
+import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.RemappedSSPInstance;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+import com.aim.project.ssp.solution.SolutionRepresentation;
+
+import java.util.Random;
+
+public class TestCoLocatedLocationCollapser {
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        // 400 locations on only 100 distinct points, so most locations have duplicates
+        Location[] points = new Location[100];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Location(random.nextInt(1000), random.nextInt(1000));
+        }
+        Location[] locations = new Location[400];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = points[random.nextInt(points.length)];
+        }
+        SSPInstance original = new SSPInstance(locations.length, locations, new Location(0, 0),
+                new Location(1000, 1000), random);
+
+        SSPInstanceInterface collapsed = new CoLocatedLocationCollapser(0).collapse(original, random);
+        assert collapsed instanceof RemappedSSPInstance : "Duplicate locations were not collapsed";
+        assert collapsed.getNumberOfLocations() <= points.length :
+                "Collapsed instance has " + collapsed.getNumberOfLocations() + " locations for "
+                        + points.length + " distinct points";
+        testExpansion(original, (RemappedSSPInstance) collapsed, random);
+        System.out.println("Collapse test passed!");
+
+        // Renumbering keeps the mapping of the collapsed instance back to the original locations
+        SSPInstanceInterface renumbered = new HilbertLocationRenumberer().renumber(collapsed, random);
+        testExpansion(original, (RemappedSSPInstance) renumbered, random);
+        System.out.println("Collapse and renumber test passed!");
+
+        System.out.println("All tests passed successfully!");
+    }
+
+    /**
+     * Checks that tours over the reduced instance expand to permutations of the original location IDs
+     * that cost the same on the original instance.
+     */
+    private static void testExpansion(SSPInstance original, RemappedSSPInstance reduced, Random random) {
+        for (int t = 0; t < 20; t++) {
+            SSPSolutionInterface solution = reduced.createSolution(
+                    t % 2 == 0 ? InitialisationMode.RANDOM : InitialisationMode.CONSTRUCTIVE, random);
+            int[] expanded = reduced.getOriginalLocationIds(solution);
+
+            assert expanded.length == original.getNumberOfLocations() :
+                    "Expanded tour has " + expanded.length + " locations instead of " + original.getNumberOfLocations();
+            boolean[] seen = new boolean[expanded.length];
+            for (int location : expanded) {
+                assert location >= 0 && location < expanded.length && !seen[location] :
+                        "Expanded tour is not a permutation: location " + location + " is out of range or repeated";
+                seen[location] = true;
+            }
+
+            int expandedCost = original.getSSPObjectiveFunction()
+                    .getObjectiveFunctionValue(new SolutionRepresentation(expanded));
+            assert expandedCost == solution.getObjectiveFunctionValue() :
+                    "Expanded tour costs " + expandedCost + " but the reduced tour " + solution.getObjectiveFunctionValue();
+        }
+    }
+}
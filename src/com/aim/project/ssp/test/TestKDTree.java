@@ -0,0 +1,104 @@
+package com.aim.project.ssp.test;
+
+import com.aim.project.ssp.instance.KDTree;
+import com.aim.project.ssp.instance.Location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TestKDTree {
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        // Include duplicates and collinear points to exercise the splitting
+        Location[] locations = new Location[2000];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = i % 10 == 0
+                    ? new Location(i % 50, 7)
+                    : new Location(random.nextInt(1000), random.nextInt(1000));
+        }
+        KDTree tree = new KDTree(locations);
+
+        testKNearest(tree, locations, random);
+        testWithinRadius(tree, locations, random);
+        testNearestUnvisited(tree, locations, random);
+
+        System.out.println("All tests passed successfully!");
+    }
+
+    private static void testKNearest(KDTree tree, Location[] locations, Random random) {
+        int[] result = new int[8];
+        for (int q = 0; q < 200; q++) {
+            int x = random.nextInt(1200) - 100;
+            int y = random.nextInt(1200) - 100;
+            int count = tree.kNearest(x, y, result.length, result);
+
+            long[] expected = sortedDistances(locations, x, y, null);
+            assert count == result.length : "kNearest returned " + count + " locations";
+            for (int i = 0; i < count; i++) {
+                assert distance(locations[result[i]], x, y) == expected[i] :
+                        "kNearest result " + i + " is not the " + i + "-th nearest location";
+            }
+        }
+        System.out.println("kNearest test passed!");
+    }
+
+    private static void testWithinRadius(KDTree tree, Location[] locations, Random random) {
+        for (int q = 0; q < 100; q++) {
+            int x = random.nextInt(1000);
+            int y = random.nextInt(1000);
+            double radius = random.nextInt(80);
+
+            List<Integer> found = new ArrayList<>();
+            tree.withinRadius(x, y, radius, found::add);
+
+            int expected = 0;
+            for (Location l : locations) {
+                if (distance(l, x, y) <= radius * radius) {
+                    expected++;
+                }
+            }
+            assert found.size() == expected :
+                    "withinRadius found " + found.size() + " locations, expected " + expected;
+        }
+        System.out.println("withinRadius test passed!");
+    }
+
+    private static void testNearestUnvisited(KDTree tree, Location[] locations, Random random) {
+        KDTree.DeletionSearch search = tree.newDeletionSearch();
+        boolean[] removed = new boolean[locations.length];
+
+        Location current = new Location(500, 500);
+        while (search.remaining() > 0) {
+            int nearest = search.nearest(current.x(), current.y());
+            long[] expected = sortedDistances(locations, current.x(), current.y(), removed);
+            assert !removed[nearest] : "Location " + nearest + " was returned after being removed";
+            assert distance(locations[nearest], current.x(), current.y()) == expected[0] :
+                    "Location " + nearest + " is not the nearest unvisited location";
+
+            search.remove(nearest);
+            removed[nearest] = true;
+            assert !search.contains(nearest) : "Location " + nearest + " still reported after removal";
+            current = locations[nearest];
+        }
+        assert search.nearest(0, 0) == -1 : "Search on an empty set should return -1";
+        System.out.println("Nearest unvisited test passed!");
+    }
+
+    private static long[] sortedDistances(Location[] locations, long x, long y, boolean[] removed) {
+        return IntStream.range(0, locations.length)
+                .filter(i -> removed == null || !removed[i])
+                .mapToLong(i -> distance(locations[i], x, y))
+                .sorted()
+                .toArray();
+    }
+
+    private static long distance(Location l, long x, long y) {
+        long dx = l.x() - x;
+        long dy = l.y() - y;
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,76 @@
+package com.aim.project.ssp.test;
+
+import com.aim.project.ssp.benchmarks.SyntheticInstances;
+import com.aim.project.ssp.heuristics.TwoOpt;
+import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestParallelTwoOpt {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        SSPInstance instance = SyntheticInstances.uniform(30_000, 42);
+        SSPSolutionInterface start = instance.createSolution(InitialisationMode.CONSTRUCTIVE);
+
+        // Parallel streams started from a pool's worker run in that pool, so the pool sets the parallelism
+        int[] single = improveInPool(instance, start, 1);
+        int[] multiple = improveInPool(instance, start, 4);
+
+        assert Arrays.equals(single, multiple) : "The tour depends on the number of threads";
+        System.out.println("Thread count independence test passed!");
+
+        System.out.println("All tests passed successfully!");
+    }
+
+    /**
+     * Runs the batched parallel mode of TwoOpt to a local optimum in a pool with the given parallelism,
+     * checking the result.
+     *
+     * @return The improved tour.
+     */
+    private static int[] improveInPool(SSPInstance instance, SSPSolutionInterface start, int parallelism)
+            throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> {
+                TwoOpt twoOpt = new TwoOpt(new Random(42));
+                twoOpt.setObjectiveFunction(instance.getSSPObjectiveFunction());
+                twoOpt.setParallelThreshold(0);
+
+                SSPSolutionInterface solution = start.clone();
+                int previous;
+                do {
+                    previous = solution.getObjectiveFunctionValue();
+                    twoOpt.apply(solution, 1.0, 0.0);
+                } while (solution.getObjectiveFunctionValue() < previous);
+
+                checkSolution(instance, solution);
+                assert solution.getObjectiveFunctionValue() < start.getObjectiveFunctionValue() :
+                        "TwoOpt did not improve the nearest neighbour tour";
+                System.out.println("Valid tour test passed with parallelism " + parallelism + "!");
+                return solution.getSolutionRepresentation().getSolutionRepresentation().clone();
+            }).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void checkSolution(SSPInstance instance, SSPSolutionInterface solution) {
+        int[] tour = solution.getSolutionRepresentation().getSolutionRepresentation();
+        boolean[] seen = new boolean[tour.length];
+        for (int location : tour) {
+            assert location >= 0 && location < tour.length && !seen[location] :
+                    "Tour is not a permutation: location " + location + " is out of range or repeated";
+            seen[location] = true;
+        }
+
+        int evaluated = instance.getSSPObjectiveFunction().getObjectiveFunctionValue(solution.getSolutionRepresentation());
+        assert solution.getObjectiveFunctionValue() == evaluated :
+                "Stored cost " + solution.getObjectiveFunctionValue() + " differs from the evaluated cost " + evaluated;
+    }
+}
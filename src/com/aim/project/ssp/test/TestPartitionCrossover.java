@@ -0,0 +1,129 @@
+package com.aim.project.ssp.test;
+
+import com.aim.project.ssp.heuristics.DoubleBridge;
+import com.aim.project.ssp.heuristics.PartitionCrossover;
+import com.aim.project.ssp.heuristics.TwoOpt;
+import com.aim.project.ssp.instance.InitialisationMode;
+import com.aim.project.ssp.instance.Location;
+import com.aim.project.ssp.instance.MappedDistanceMatrix;
+import com.aim.project.ssp.instance.MatrixSSPInstance;
+import com.aim.project.ssp.instance.SSPInstance;
+import com.aim.project.ssp.interfaces.ObjectiveFunctionInterface;
+import com.aim.project.ssp.interfaces.SSPInstanceInterface;
+import com.aim.project.ssp.interfaces.SSPSolutionInterface;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class TestPartitionCrossover {
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(42);
+
+        SSPInstance euclidean = new SSPInstance(500, randomLocations(500, random), new Location(0, 0),
+                new Location(1000, 1000), random);
+        testRandomParents(euclidean, random);
+        testLocallyOptimalParents(euclidean, random);
+
+        Path matrixFile = Files.createTempFile("asymmetric", ".sspm");
+        try {
+            SSPInstanceInterface asymmetric = asymmetricInstance(300, matrixFile, random);
+            testRandomParents(asymmetric, random);
+            testLocallyOptimalParents(asymmetric, random);
+        } finally {
+            Files.deleteIfExists(matrixFile);
+        }
+
+        System.out.println("All tests passed successfully!");
+    }
+
+    private static void testRandomParents(SSPInstanceInterface instance, Random random) {
+        for (int t = 0; t < 50; t++) {
+            SSPSolutionInterface parent1 = instance.createSolution(InitialisationMode.RANDOM, random);
+            SSPSolutionInterface parent2 = instance.createSolution(InitialisationMode.RANDOM, random);
+            checkChild(instance, parent1, parent2, random);
+        }
+        System.out.println("Random parents test passed!");
+    }
+
+    /**
+     * Parents that are 2-opted perturbations of the same tour share many edges, so the crossover finds
+     * many components to choose between.
+     */
+    private static void testLocallyOptimalParents(SSPInstanceInterface instance, Random random) {
+        ObjectiveFunctionInterface f = instance.getSSPObjectiveFunction();
+        TwoOpt twoOpt = new TwoOpt(random);
+        twoOpt.setObjectiveFunction(f);
+        DoubleBridge kick = new DoubleBridge(random);
+        kick.setObjectiveFunction(f);
+
+        SSPSolutionInterface start = instance.createSolution(InitialisationMode.CONSTRUCTIVE, random);
+        twoOpt.apply(start, 1.0, 0.0);
+        for (int t = 0; t < 50; t++) {
+            SSPSolutionInterface parent1 = start.clone();
+            SSPSolutionInterface parent2 = start.clone();
+            kick.apply(parent1, 0.0, random.nextDouble());
+            kick.apply(parent2, 0.0, random.nextDouble());
+            twoOpt.apply(parent1, 1.0, 0.0);
+            twoOpt.apply(parent2, 1.0, 0.0);
+            checkChild(instance, parent1, parent2, random);
+        }
+        System.out.println("Locally optimal parents test passed!");
+    }
+
+    private static void checkChild(SSPInstanceInterface instance, SSPSolutionInterface parent1,
+                                   SSPSolutionInterface parent2, Random random) {
+        ObjectiveFunctionInterface f = instance.getSSPObjectiveFunction();
+        PartitionCrossover crossover = new PartitionCrossover(random);
+        crossover.setObjectiveFunction(f);
+
+        SSPSolutionInterface child = instance.createSolution(InitialisationMode.RANDOM, random);
+        int cost = (int) crossover.apply(parent1, parent2, child, 0.0, 0.0);
+
+        int[] tour = child.getSolutionRepresentation().getSolutionRepresentation();
+        boolean[] seen = new boolean[tour.length];
+        for (int location : tour) {
+            assert location >= 0 && location < tour.length && !seen[location] :
+                    "Child is not a permutation: location " + location + " is out of range or repeated";
+            seen[location] = true;
+        }
+
+        assert cost == child.getObjectiveFunctionValue() : "Returned cost differs from the stored cost";
+        assert cost == f.getObjectiveFunctionValue(child.getSolutionRepresentation()) :
+                "Stored cost " + cost + " differs from the evaluated cost "
+                        + f.getObjectiveFunctionValue(child.getSolutionRepresentation());
+
+        int better = Math.min(parent1.getObjectiveFunctionValue(), parent2.getObjectiveFunctionValue());
+        assert cost <= better : "Child cost " + cost + " is worse than the better parent's " + better;
+    }
+
+    private static SSPInstanceInterface asymmetricInstance(int n, Path matrixFile, Random random) throws IOException {
+        Location[] locations = randomLocations(n, random);
+        int[][] detours = new int[n + 2][n + 2];
+        for (int[] row : detours) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = random.nextInt(200);
+            }
+        }
+
+        // Euclidean distances between the coordinates plus a different detour in each direction
+        Location[] all = new Location[n + 2];
+        all[0] = new Location(0, 0);
+        System.arraycopy(locations, 0, all, 1, n);
+        all[n + 1] = new Location(1000, 1000);
+        MappedDistanceMatrix.write(matrixFile, n + 2, false, (i, j) -> i == j ? 0
+                : (int) Math.ceil(Math.hypot(all[i].x() - all[j].x(), all[i].y() - all[j].y())) + detours[i][j]);
+
+        return MatrixSSPInstance.create(n, locations, all[0], all[n + 1], MappedDistanceMatrix.open(matrixFile), random);
+    }
+
+    private static Location[] randomLocations(int n, Random random) {
+        Location[] locations = new Location[n];
+        for (int i = 0; i < n; i++) {
+            locations[i] = new Location(random.nextInt(1000), random.nextInt(1000));
+        }
+        return locations;
+    }
+}
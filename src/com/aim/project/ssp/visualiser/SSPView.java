@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.io.Serial;
 import java.util.LinkedList;
+import java.util.List;
 
 import javax.swing.JFrame;
 import javax.swing.JPanel;
@@ -149,7 +150,10 @@ public class SSPView extends JFrame {
 				SSPSolution oSSPSolution = (SSPSolution) solution;
 				if (solution != null && solution.getSolutionRepresentation() != null) {
 
-					int[] rep = oSSPSolution.getSolutionRepresentation().getSolutionRepresentation();
+					// sightseeing locations in visiting order, mapped back to the original locations
+					// when the instance has been renumbered or collapsed during loading
+					List<Location> oRoute = oInstance.getSolutionAsListOfLocations(oSSPSolution);
+					Location[] route = oRoute.subList(1, oRoute.size() - 1).toArray(new Location[0]);
 					Location oAirportLocation = oProblem.getLoadedInstance().getAirportLocation();
 					Location oHotelLocation = oProblem.getLoadedInstance().getHotelLocation();
 
@@ -172,9 +176,8 @@ public class SSPView extends JFrame {
 					min_x = Math.min(min_x, oHotelLocation.x());
 					min_y = Math.min(min_y, oHotelLocation.y());
 
-					for (int i : rep) {
+					for (Location l : route) {
 
-						Location l = oInstance.getSightseeingLocation(rep[i]);
 						max_x = Math.max(max_x, l.x());
 						max_y = Math.max(max_y, l.y());
 						min_x = Math.min(min_x, l.x());
@@ -183,7 +186,7 @@ public class SSPView extends JFrame {
 
 					// draw hotel location to first sightseeing location
 					int x1, x2, y1, y2;
-					Location l1 = oHotelLocation, l2 = oInstance.getSightseeingLocation(rep[0]);
+					Location l1 = oHotelLocation, l2 = route[0];
 					x1 = map(l1.x(), min_x, max_x, 10, width - 10);
 					x2 = map(l2.x(), min_x, max_x, 10, width - 10);
 					y1 = height - map(l1.y(), min_y, max_y, 10, height - 10);
@@ -198,10 +201,10 @@ public class SSPView extends JFrame {
 					drawHotel(g, x1, y1, 12, 12);
 
 					// draw sightseeing routes
-					for (int i = 0; i < rep.length - 1; i++) {
+					for (int i = 0; i < route.length - 1; i++) {
 
-						l1 = oInstance.getSightseeingLocation(rep[i]);
-						l2 = oInstance.getSightseeingLocation(rep[i + 1]);
+						l1 = route[i];
+						l2 = route[i + 1];
 
 						x1 = map(l1.x(), min_x, max_x, 10, width - 10);
 						x2 = map(l2.x(), min_x, max_x, 10, width - 10);
@@ -218,7 +221,7 @@ public class SSPView extends JFrame {
 					g.fillOval(x2 - 2, y2 - 2, 4, 4);
 
 					// draw route from last sightseeing location to the airport
-					l1 = oInstance.getSightseeingLocation(rep[rep.length - 1]);
+					l1 = route[route.length - 1];
 					l2 = oAirportLocation;
 					x1 = map(l1.x(), min_x, max_x, 10, width - 10);
 					x2 = map(l2.x(), min_x, max_x, 10, width - 10);